@@ -0,0 +1,88 @@
+package Benchmarks;
+
+import Control.CycleEngine;
+import Control.OperatingSystem;
+import Control.RandomSource;
+import Control.UserInterface;
+import Processes.PCB;
+import Processes.Template;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots a headless OS for the benchmarks which need one. The OS is a singleton, which is fine since JMH runs
+// every benchmark in a JVM of its own
+class Kernel implements UserInterface {
+
+    static final long SEED = 312;
+
+    // The templates shipped with the simulator, so benchmarks are run from the repository root by default
+    static final String WORKLOAD_TEMPLATES = System.getProperty("templates", "templates");
+
+    // A process which only calculates, so it never waits on I/O, forks or enters a critical section
+    static final String CALCULATE_TEMPLATE = "MEMORY_REQUIRED_MB: 13\nCALCULATE 99999 100000";
+
+    private final int processesPerTemplate;
+
+    private Kernel(int processesPerTemplate) {
+        this.processesPerTemplate = processesPerTemplate;
+    }
+
+    static OperatingSystem boot(String templatesDirectory, int processesPerTemplate, boolean singleThreaded) {
+        RandomSource.setSeed(SEED);
+        Template.setTemplatesDirectory(templatesDirectory);
+        OperatingSystem os = OperatingSystem.getInstance();
+        os.setSpeedLimit(CycleEngine.MAX_SPEED);
+        os.setSingleThreaded(singleThreaded);
+        os.boot(new Kernel(processesPerTemplate));
+        return os;
+    }
+
+    // Writes a single template to a new templates directory
+    static String writeTemplate(String name, String contents) throws IOException {
+        Path directory = Files.createTempDirectory("templates");
+        Path template = directory.resolve(name + ".txt");
+        Files.write(template, contents.getBytes(StandardCharsets.UTF_8));
+        template.toFile().deleteOnExit();
+        directory.toFile().deleteOnExit();
+        return directory.toString();
+    }
+
+    @Override
+    public void requestNumProcesses(List<Template> templates) {
+        List<Integer> processesPerTemplate = new ArrayList<>();
+        for (int i = 0 ; i < templates.size() ; i++) {
+            processesPerTemplate.add(this.processesPerTemplate);
+        }
+        OperatingSystem.getInstance().createProcesses(templates, processesPerTemplate);
+    }
+
+    // Benchmarks set the number of cycles to run themselves
+    @Override
+    public void requestNumCycles() {}
+
+    @Override
+    public void updateRunningScene(
+            List<PCB> runningProcesses,
+            long elapsedMs,
+            long elapsedCycles,
+            int numRunning,
+            int numReady,
+            int numIo,
+            int numResources,
+            int numCritical,
+            int numTerminated,
+            String processorStats
+    ) {}
+
+    @Override
+    public void setHalted() {}
+
+    @Override
+    public void setCompleted() {}
+
+}
@@ -0,0 +1,41 @@
+package Benchmarks;
+
+import Control.OperatingSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Runs the whole kernel headless on the workload templates, each invocation carries on the same run for a
+// fixed number of cycles. The OS can't be rebooted within a JVM, so every fork boots it once
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(3)
+public class KernelBenchmark {
+
+    @Param({"5", "25"})
+    private int processesPerTemplate;
+
+    @Param({"true", "false"})
+    private boolean singleThreaded;
+
+    @Param({"2000"})
+    private long cycles;
+
+    private OperatingSystem os;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        os = Kernel.boot(Kernel.WORKLOAD_TEMPLATES, processesPerTemplate, singleThreaded);
+    }
+
+    @Benchmark
+    public long runCycles() {
+        os.setMaxCycles(os.getElapsedCycles() + cycles);
+        os.runOS();
+        return os.getElapsedCycles();
+    }
+
+}
@@ -0,0 +1,60 @@
+package Benchmarks;
+
+import Memory.MainMemory;
+import Memory.Page;
+import Memory.PageReplacement;
+import Memory.Word;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reads cycle through every page of a 13 MB process. Without faults all of its pages are resident, with faults
+// memory only holds two frames, so every read swaps a page in and another out, and the cost of selecting a victim
+// under each replacement policy shows
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryBenchmark {
+
+    private static final int PID = 1;
+    private static final int PAGE_SIZE_MB = 2;
+    private static final int PROCESS_SIZE_MB = 13;
+
+    @Param({"false", "true"})
+    private boolean faulting;
+
+    @Param({"FIFO", "LRU", "CLOCK", "LFU", "ARC"})
+    private PageReplacement replacement;
+
+    private MainMemory memory;
+    private List<Page> pages;
+    private int next;
+
+    @Setup
+    public void setup() {
+        MainMemory.configure(faulting ? 2 * PAGE_SIZE_MB : 1024, PAGE_SIZE_MB, false, replacement);
+        memory = MainMemory.getInstance();
+        pages = memory.requestMemory(PID, PROCESS_SIZE_MB);
+        next = 0;
+    }
+
+    @Benchmark
+    public Word read() {
+        Page page = pages.get(next);
+        next = (next + 1) % pages.size();
+        return memory.read(PID, page, 0);
+    }
+
+    @Benchmark
+    public Word readAcrossPageBreak() {
+        Page page1 = pages.get(next);
+        Page page2 = pages.get(next + 1);
+        next = (next + 1) % (pages.size() - 1);
+        return memory.readAcrossPageBreak(PID, page1, Page.getSizeBytes() - Word.WORD_SIZE_IN_BYTES / 2, page2);
+    }
+
+}
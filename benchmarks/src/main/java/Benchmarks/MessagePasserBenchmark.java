@@ -0,0 +1,46 @@
+package Benchmarks;
+
+import Communication.Message;
+import Communication.MessagePasser;
+import Memory.MainMemory;
+import Memory.Page;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Sends a message to a mailbox already holding a number of messages and receives the oldest one
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessagePasserBenchmark {
+
+    private static final int SENDER = 1;
+    private static final int RECIPIENT = 2;
+
+    @Param({"0", "1024"})
+    private int backlog;
+
+    private MessagePasser messagePasser;
+    private Message message;
+
+    @Setup
+    public void setup() {
+        messagePasser = MessagePasser.getInstance();
+        List<Page> pages = MainMemory.getInstance().requestMemory(SENDER, 1);
+        message = new Message(SENDER, MainMemory.getInstance().read(SENDER, pages.get(0), 0));
+        for (int i = 0 ; i < backlog ; i++) {
+            messagePasser.send(RECIPIENT, message);
+        }
+    }
+
+    @Benchmark
+    public Message sendReceive() {
+        messagePasser.send(RECIPIENT, message);
+        return messagePasser.receive(RECIPIENT);
+    }
+
+}
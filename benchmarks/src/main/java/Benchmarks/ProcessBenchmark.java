@@ -0,0 +1,46 @@
+package Benchmarks;
+
+import Communication.IPCStandard;
+import Processes.PCB;
+import Processes.Template;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// A single cycle of a calculating process, including its memory access and IPC
+// Processes.State is written out in full, since it clashes with the JMH State annotation
+// Once the process exits it is replaced by a new one, which happens about once every 100000 cycles
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessBenchmark {
+
+    private static final int PID = 1;
+
+    @Param({"MESSAGE_PASSING", "ORDINARY_PIPE"})
+    private IPCStandard ipcStandard;
+
+    private Template template;
+    private PCB p;
+
+    @Setup
+    public void setup() throws Exception {
+        Kernel.boot(Kernel.writeTemplate("calculate", Kernel.CALCULATE_TEMPLATE), 0, true);
+        template = Template.getTemplates().get(0);
+        p = new PCB(template, PID, ipcStandard);
+    }
+
+    @Benchmark
+    public PCB progressOneCycle() {
+        p.progressOneCycle();
+        if (p.getState() == Processes.State.EXIT) {
+            // Everything held by the process was released when it exited, so the pid can be reused
+            p = new PCB(template, PID, ipcStandard);
+        }
+        return p;
+    }
+
+}
@@ -0,0 +1,79 @@
+package Benchmarks;
+
+import Control.ResourceManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// A process requests a single resource under the Banker's Algorithm, which is then released again
+// When loaded, nearly every resource is held by other processes, so every request runs the full safety check
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceManagerBenchmark {
+
+    private static final int TYPES = ResourceManager.NUM_RESOURCE_TYPES;
+    // Resources of each type left available when loaded
+    private static final int LOADED_AVAILABLE = 1;
+
+    @Param({"100", "1000", "10000"})
+    private int processes;
+
+    @Param({"false", "true"})
+    private boolean loaded;
+
+    private ResourceManager resourceManager;
+    private int[][] requests;
+    private int next;
+
+    @Setup
+    public void setup() {
+        resourceManager = ResourceManager.getInstance();
+        SplittableRandom random = new SplittableRandom(Kernel.SEED);
+        requests = new int[processes][];
+        for (int i = 0 ; i < processes ; i++) {
+            // Maximum demands are drawn the same way as for a PCB, but always include a resource to request
+            int[] maxDemand = new int[TYPES];
+            int[] request = new int[TYPES];
+            for (int j = 0 ; j < TYPES ; j++) {
+                maxDemand[j] = random.nextInt(ResourceManager.NUM_RESOURCES_PER_TYPE / 4);
+            }
+            int requested = random.nextInt(TYPES);
+            maxDemand[requested] = Math.max(maxDemand[requested], 1);
+            request[requested] = 1;
+            resourceManager.addProcess(i + 1, maxDemand);
+            requests[i] = request;
+        }
+        if (loaded) {
+            // Each holder needs nothing more, so the state stays safe
+            int pid = processes + 1;
+            for (int j = 0 ; j < TYPES ; j++) {
+                for (int k = 0 ; k < ResourceManager.NUM_RESOURCES_PER_TYPE - LOADED_AVAILABLE ; k++) {
+                    int[] holding = new int[TYPES];
+                    holding[j] = 1;
+                    resourceManager.addProcess(pid, holding);
+                    resourceManager.requestOrWait(pid, holding);
+                    pid++;
+                }
+            }
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public boolean requestAndRelease() {
+        int pid = next + 1;
+        int[] request = requests[next];
+        next = (next + 1) % processes;
+        boolean granted = resourceManager.requestOrWait(pid, request);
+        if (granted) {
+            resourceManager.releaseResources(pid, request);
+        }
+        return granted;
+    }
+
+}
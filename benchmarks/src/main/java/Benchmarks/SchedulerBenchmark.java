@@ -0,0 +1,62 @@
+package Benchmarks;
+
+import Communication.IPCStandard;
+import Processes.PCB;
+import Processes.Template;
+import Scheduling.MLQScheduler;
+import Scheduling.RRScheduler;
+import Scheduling.SJFScheduler;
+import Scheduling.ShortTermScheduler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of scheduling a process while a queue holds a given number of ready processes
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    @Param({"SJF", "MLQ", "RR"})
+    private String scheduler;
+
+    @Param({"16", "256", "4096"})
+    private int depth;
+
+    private ShortTermScheduler queue;
+    // The process outside the queue, which is added before the next one is removed
+    private PCB spare;
+
+    @Setup
+    public void setup() throws Exception {
+        Kernel.boot(Kernel.writeTemplate("calculate", Kernel.CALCULATE_TEMPLATE), 0, true);
+        Template template = Template.getTemplates().get(0);
+        queue = createScheduler();
+        for (int pid = 1 ; pid <= depth ; pid++) {
+            queue.add(new PCB(template, pid, IPCStandard.MESSAGE_PASSING));
+        }
+        spare = new PCB(template, depth + 1, IPCStandard.MESSAGE_PASSING);
+    }
+
+    @Benchmark
+    public PCB addRemove() {
+        queue.add(spare);
+        spare = queue.remove();
+        return spare;
+    }
+
+    private ShortTermScheduler createScheduler() {
+        switch (scheduler) {
+            case "SJF":
+                return new SJFScheduler();
+            case "MLQ":
+                return new MLQScheduler();
+            default:
+                return new RRScheduler();
+        }
+    }
+
+}
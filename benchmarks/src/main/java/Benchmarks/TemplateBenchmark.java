@@ -0,0 +1,25 @@
+package Benchmarks;
+
+import Processes.Template;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reads and parses every template in the workload templates directory
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateBenchmark {
+
+    @Benchmark
+    public List<Template> parse() throws Exception {
+        // Discards the templates loaded by the previous invocation
+        Template.setTemplatesDirectory(Kernel.WORKLOAD_TEMPLATES);
+        return Template.getTemplates();
+    }
+
+}
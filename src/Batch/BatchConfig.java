@@ -0,0 +1,228 @@
+package Batch;
+
+import Control.Configuration;
+import Control.CycleEngine;
+import Control.DeadlockRecovery;
+import Control.DeadlockStrategy;
+import Control.PriorityProtocol;
+import Memory.PageReplacement;
+import Scheduling.MLQScheduler;
+import Scheduling.RRScheduler;
+import Scheduling.SJFScheduler;
+import Scheduling.ShortTermScheduler;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+// Settings for a headless run, read from a properties file and/or key=value command line arguments
+public class BatchConfig {
+
+    static final String TEMPLATES = "templates";
+    static final String PROCESSES = "processes";
+    static final String MAX_CYCLES = "maxCycles";
+    static final String SPEED_LIMIT = "speedLimit";
+    static final String TIME_SKIPPING = "timeSkipping";
+    static final String SINGLE_THREADED = "singleThreaded";
+    static final String CYCLE_PROFILING = "cycleProfiling";
+    static final String SEED = "seed";
+    static final String CORES = "cores";
+    static final String SCHEDULERS = "schedulers";
+    static final String SCHEDULER = "scheduler";
+    static final String LOAD_BALANCING = "loadBalancing";
+    static final String MIGRATION_COST = "migrationCost";
+    static final String AFFINITY_THRESHOLD = "affinityThreshold";
+    static final String DEADLOCK_STRATEGY = "deadlockStrategy";
+    static final String DEADLOCK_RECOVERY = "deadlockRecovery";
+    static final String DETECTION_INTERVAL = "detectionInterval";
+    static final String PRIORITY_PROTOCOL = "priorityProtocol";
+    static final String TERMINATED_HISTORY = "terminatedHistory";
+    static final String TERMINATION_LOG = "terminationLog";
+    static final String HARDWARE_THREADS = "hardwareThreads";
+    static final String MEMORY_MB = "memoryMB";
+    static final String PAGE_SIZE_MB = "pageSizeMB";
+    static final String DEMAND_PAGING = "demandPaging";
+    static final String PAGE_REPLACEMENT = "pageReplacement";
+    static final String CHECKPOINT = "checkpoint";
+    static final String RESTORE = "restore";
+    static final String TRACE = "trace";
+
+    private static final String DEFAULT_TEMPLATES_DIRECTORY = "templates";
+    private static final int DEFAULT_PROCESSES_PER_TEMPLATE = 1;
+    private static final String DEFAULT_SCHEDULERS = "SJF,MLQ";
+
+    private final Properties properties;
+
+    private BatchConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    // Any argument containing '=' overrides a single setting, any other argument names a properties file
+    public static BatchConfig parse(String[] args) throws IOException {
+        Properties properties = new Properties();
+        for (String arg : args) {
+            if (!arg.contains("=")) {
+                try (Reader reader = new FileReader(arg)) {
+                    properties.load(reader);
+                }
+            }
+        }
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split > 0) {
+                properties.setProperty(arg.substring(0, split).trim(), arg.substring(split + 1).trim());
+            }
+        }
+        return new BatchConfig(properties);
+    }
+
+    public String getTemplatesDirectory() {
+        return properties.getProperty(TEMPLATES, DEFAULT_TEMPLATES_DIRECTORY);
+    }
+
+    // "processes.<template name>" takes precedence over "processes", which applies to every template
+    public int getProcesses(String templateName) {
+        int defaultProcesses = getInt(PROCESSES, DEFAULT_PROCESSES_PER_TEMPLATE);
+        return getInt(PROCESSES + "." + templateName, defaultProcesses);
+    }
+
+    public long getMaxCycles() {
+        return getLong(MAX_CYCLES, Long.MAX_VALUE);
+    }
+
+    public int getSpeedLimit() {
+        return getInt(SPEED_LIMIT, CycleEngine.MAX_SPEED);
+    }
+
+    public boolean isTimeSkipping() {
+        return getBoolean(TIME_SKIPPING, false);
+    }
+
+    public boolean isSingleThreaded() {
+        return getBoolean(SINGLE_THREADED, false);
+    }
+
+    public boolean isCycleProfiling() {
+        return getBoolean(CYCLE_PROFILING, true);
+    }
+
+    public boolean hasSeed() {
+        return properties.getProperty(SEED) != null;
+    }
+
+    public long getSeed() {
+        return getLong(SEED, 0);
+    }
+
+    // File which the kernel state is saved to once the run halts, or null for none
+    public String getCheckpointPath() {
+        return properties.getProperty(CHECKPOINT);
+    }
+
+    // Checkpoint to carry on from, or null to boot a new OS
+    // When restoring, only the speed limit, threading mode, time skipping, max cycles and checkpoint settings apply,
+    // and max cycles counts the cycles already run before the checkpoint was saved
+    public String getRestorePath() {
+        return properties.getProperty(RESTORE);
+    }
+
+    // File which kernel events are traced to, or null for none. Read using Tracing.TraceReader
+    public String getTracePath() {
+        return properties.getProperty(TRACE);
+    }
+
+    public Configuration getConfiguration() {
+        Configuration configuration = new Configuration();
+        configuration.setNumCores(getInt(CORES, Configuration.DEFAULT_NUM_CORES));
+        configuration.setSchedulerFactories(getSchedulerFactories(configuration.getNumCores()));
+        configuration.setLoadBalancing(getBoolean(LOAD_BALANCING, false));
+        configuration.setMigrationCost(getInt(MIGRATION_COST, Configuration.DEFAULT_MIGRATION_COST));
+        configuration.setAffinityThreshold(getInt(AFFINITY_THRESHOLD, Configuration.DEFAULT_AFFINITY_THRESHOLD));
+        configuration.setDeadlockStrategy(getEnum(DEADLOCK_STRATEGY, DeadlockStrategy.AVOIDANCE));
+        configuration.setDeadlockRecovery(getEnum(DEADLOCK_RECOVERY, DeadlockRecovery.TERMINATE));
+        configuration.setDetectionInterval(getInt(DETECTION_INTERVAL, Configuration.DEFAULT_DETECTION_INTERVAL));
+        configuration.setPriorityProtocol(getEnum(PRIORITY_PROTOCOL, PriorityProtocol.NONE));
+        configuration.setTerminatedHistorySize(getInt(TERMINATED_HISTORY, Configuration.DEFAULT_TERMINATED_HISTORY_SIZE));
+        configuration.setTerminationLogPath(properties.getProperty(TERMINATION_LOG));
+        configuration.setHardwareThreadsPerCore(
+                getInt(HARDWARE_THREADS, Configuration.DEFAULT_HARDWARE_THREADS_PER_CORE));
+        configuration.setMemoryCapacityMB(getInt(MEMORY_MB, Configuration.DEFAULT_MEMORY_CAPACITY_MB));
+        configuration.setPageSizeMB(getInt(PAGE_SIZE_MB, Configuration.DEFAULT_PAGE_SIZE_MB));
+        configuration.setDemandPaging(getBoolean(DEMAND_PAGING, false));
+        configuration.setPageReplacement(getEnum(PAGE_REPLACEMENT, PageReplacement.FIFO));
+        return configuration;
+    }
+
+    // "scheduler.<core number>" takes precedence over "schedulers", a list which is repeated across all cores
+    private List<Supplier<ShortTermScheduler>> getSchedulerFactories(int numCores) {
+        String[] schedulers = properties.getProperty(SCHEDULERS, DEFAULT_SCHEDULERS).split(",");
+        List<Supplier<ShortTermScheduler>> factories = new ArrayList<>();
+        for (int i = 0 ; i < numCores ; i++) {
+            String name = properties.getProperty(SCHEDULER + "." + (i + 1), schedulers[i % schedulers.length]);
+            factories.add(getSchedulerFactory(name.trim()));
+        }
+        return factories;
+    }
+
+    private Supplier<ShortTermScheduler> getSchedulerFactory(String name) {
+        switch (name) {
+            case "SJF":
+                return SJFScheduler::new;
+            case "MLQ":
+                return MLQScheduler::new;
+            case "RR":
+                return RRScheduler::new;
+            default:
+                throw new IllegalArgumentException("Unrecognized scheduler (expected SJF, MLQ or RR): " + name);
+        }
+    }
+
+    int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not an integer: " + value);
+        }
+    }
+
+    <E extends Enum<E>> E getEnum(String key, E defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(defaultValue.getDeclaringClass(), value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(key + " has an unrecognized value: " + value);
+        }
+    }
+
+    boolean getBoolean(String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not an integer: " + value);
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+package Batch;
+
+import Control.OperatingSystem;
+import Control.RandomSource;
+import Control.UserInterface;
+import Processes.PCB;
+import Processes.Template;
+import Tracing.TraceRecorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs the OS without a GUI and prints a statistics report once the run is over
+// Usage: BatchRunner [config.properties] [key=value ...]
+public class BatchRunner implements UserInterface {
+
+    private final BatchConfig config;
+
+    private boolean processesCreated = false;
+    private boolean completed = false;
+
+    // Most recent status sent by the OperatingSystem
+    private long elapsedMs;
+    private long elapsedCycles;
+    private int numRunning;
+    private int numTerminated;
+    private String processorStats = "";
+
+    private BatchRunner(BatchConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) {
+        BatchConfig config;
+        try {
+            config = BatchConfig.parse(args);
+            // A restored OS keeps the configuration and seed it was checkpointed with
+            if (config.getRestorePath() == null) {
+                if (!new File(config.getTemplatesDirectory()).isDirectory()) {
+                    throw new IllegalArgumentException(
+                            "Templates directory not found: " + config.getTemplatesDirectory());
+                }
+                OperatingSystem.configure(config.getConfiguration());
+                if (config.hasSeed()) {
+                    RandomSource.setSeed(config.getSeed());
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println("Usage: BatchRunner [config.properties] [key=value ...]");
+            System.exit(1);
+            return;
+        }
+
+        TraceRecorder.registerFlightRecorder();
+        BatchRunner runner = new BatchRunner(config);
+        OperatingSystem os;
+        if (config.getRestorePath() != null) {
+            try {
+                os = OperatingSystem.restoreCheckpoint(config.getRestorePath(), runner);
+            } catch (IOException e) {
+                System.out.println("Unable to restore checkpoint: " + e.getMessage());
+                System.exit(1);
+                return;
+            }
+        } else {
+            Template.setTemplatesDirectory(config.getTemplatesDirectory());
+            os = OperatingSystem.getInstance();
+        }
+        os.setSpeedLimit(config.getSpeedLimit());
+        os.setTimeSkipping(config.isTimeSkipping());
+        os.setSingleThreaded(config.isSingleThreaded());
+        os.setCycleProfiling(config.isCycleProfiling());
+        if (config.getTracePath() != null) {
+            try {
+                TraceRecorder.start(config.getTracePath());
+            } catch (IOException e) {
+                System.out.println("Unable to create trace: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (config.getRestorePath() == null) {
+            os.boot(runner);
+        }
+        if (!runner.processesCreated) {
+            System.exit(1);
+        }
+        // Run on the current thread rather than handing off to a GUI thread
+        os.runOS();
+        runner.printReport();
+        try {
+            TraceRecorder.stop();
+        } catch (IOException e) {
+            System.out.println("Unable to write trace: " + e.getMessage());
+        }
+        if (config.getCheckpointPath() != null) {
+            try {
+                os.saveCheckpoint(config.getCheckpointPath());
+                System.out.println();
+                System.out.println("Checkpoint saved to " + config.getCheckpointPath());
+            } catch (IOException e) {
+                System.out.println("Unable to save checkpoint: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+    }
+
+    @Override
+    public void requestNumProcesses(List<Template> templates) {
+        List<Integer> processesPerTemplate = new ArrayList<>();
+        for (Template template : templates) {
+            processesPerTemplate.add(config.getProcesses(template.name()));
+        }
+        OperatingSystem.getInstance().createProcesses(templates, processesPerTemplate);
+    }
+
+    @Override
+    public void requestNumCycles() {
+        processesCreated = true;
+        OperatingSystem.getInstance().setMaxCycles(config.getMaxCycles());
+    }
+
+    // Only records the status, so that reporting stays off the critical path
+    @Override
+    public void updateRunningScene(
+            List<PCB> runningProcesses,
+            long elapsedMs,
+            long elapsedCycles,
+            int numRunning,
+            int numReady,
+            int numIo,
+            int numResources,
+            int numCritical,
+            int numTerminated,
+            String processorStats
+    ) {
+        this.elapsedMs = elapsedMs;
+        this.elapsedCycles = elapsedCycles;
+        this.numRunning = numRunning;
+        this.numTerminated = numTerminated;
+        this.processorStats = processorStats;
+    }
+
+    @Override
+    public void setHalted() {
+        completed = false;
+    }
+
+    @Override
+    public void setCompleted() {
+        completed = true;
+    }
+
+    private void printReport() {
+        double cyclesPerSecond = elapsedMs == 0 ? 0 : (double) elapsedCycles * 1000 / elapsedMs;
+        System.out.println(completed ? "OS completed, all processes terminated" : "OS halted, max cycles reached");
+        System.out.println("Seed: " + RandomSource.getInstance().getSeed());
+        System.out.println("Elapsed Time: " + elapsedMs + " ms");
+        System.out.println("Elapsed Cycles: " + elapsedCycles);
+        System.out.println("Cycles per Second: " + String.format("%.2f", cyclesPerSecond));
+        System.out.println("Processes Remaining: " + numRunning);
+        System.out.println("Processes Terminated: " + numTerminated);
+        System.out.println();
+        System.out.println(processorStats);
+    }
+
+}
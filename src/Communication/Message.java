@@ -1,8 +1,12 @@
 package Communication;
 
+import java.io.Serializable;
+
 import Memory.Word;
 
-public class Message {
+public class Message implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final int sender;
     private final Word contents;
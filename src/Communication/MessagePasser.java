@@ -1,8 +1,11 @@
 package Communication;
 
+import java.io.Serializable;
 import java.util.*;
 
-public class MessagePasser {
+public class MessagePasser implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static MessagePasser instance;
 
@@ -19,6 +22,11 @@ public class MessagePasser {
         return instance;
     }
 
+    // Replaces the instance with one read from a checkpoint
+    public static void restore(MessagePasser messagePasser) {
+        instance = messagePasser;
+    }
+
     public synchronized void send(int recipient, Message message) {
         Queue<Message> list = messages.get(recipient);
         if (list == null) {
@@ -30,6 +38,11 @@ public class MessagePasser {
         }
     }
 
+    // Discards any messages left for a process which exited, since its pid may be recycled
+    public synchronized void removeMailbox(int recipient) {
+        messages.remove(recipient);
+    }
+
     public synchronized Message receive(int recipient) {
         Queue<Message> list = messages.get(recipient);
         if (list != null && list.size() > 0) {
@@ -2,10 +2,13 @@ package Communication;
 
 import Memory.Word;
 
+import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.Queue;
 
-public class OrdinaryPipe {
+public class OrdinaryPipe implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final int parent;
     private final int child;
@@ -1,9 +1,12 @@
 package Communication;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
-public class PipeManager {
+public class PipeManager implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static PipeManager instance;
 
@@ -20,6 +23,11 @@ public class PipeManager {
         return instance;
     }
 
+    // Replaces the instance with one read from a checkpoint
+    public static void restore(PipeManager pipeManager) {
+        instance = pipeManager;
+    }
+
     public synchronized OrdinaryPipe createPipe(int parent, int child) {
         OrdinaryPipe pipe = new OrdinaryPipe(parent, child);
         pipesByReader.put(child, pipe);
@@ -30,4 +38,9 @@ public class PipeManager {
         return pipesByReader.get(reader);
     }
 
+    // Called once the reader exits, since its pid may be recycled
+    public synchronized void removePipe(int reader) {
+        pipesByReader.remove(reader);
+    }
+
 }
@@ -0,0 +1,98 @@
+package Control;
+
+import Communication.MessagePasser;
+import Communication.PipeManager;
+import Memory.MainMemory;
+import Memory.VirtualMemory;
+
+import java.io.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/* Snapshot of the whole kernel state, written to a compressed binary file while the OS is halted.
+ * Everything reachable from the OperatingSystem and the other singletons is written using Java serialization,
+ * which preserves shared references, e.g. a PCB held by both the process table and a scheduler queue is
+ * restored as a single object. Threads, the CycleEngine and the user interface are not saved, and are
+ * recreated or supplied again when the checkpoint is restored. */
+class Checkpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAGIC = 0x4F53434B;
+    // Every saved class declares a fixed serialVersionUID, so this must be incremented whenever the fields of
+    // any of them change, rather than relying on serialization to reject a checkpoint saved by another build
+    private static final int VERSION = 2;
+
+    private final Configuration configuration;
+    private final OperatingSystem operatingSystem;
+    private final ResourceManager resourceManager;
+    private final MainMemory mainMemory;
+    private final VirtualMemory virtualMemory;
+    private final MessagePasser messagePasser;
+    private final PipeManager pipeManager;
+
+    private Checkpoint(Configuration configuration, OperatingSystem operatingSystem) {
+        this.configuration = configuration;
+        this.operatingSystem = operatingSystem;
+        resourceManager = ResourceManager.getInstance();
+        mainMemory = MainMemory.getInstance();
+        virtualMemory = VirtualMemory.getInstance();
+        messagePasser = MessagePasser.getInstance();
+        pipeManager = PipeManager.getInstance();
+    }
+
+    static void save(String path, Configuration configuration, OperatingSystem operatingSystem)
+            throws IOException {
+        Checkpoint checkpoint = new Checkpoint(configuration, operatingSystem);
+        try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(
+                new BufferedOutputStream(new FileOutputStream(path))))) {
+            // The header is read before the state, since restoring the state needs the RandomSource
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(RandomSource.getInstance().getSeed());
+            out.writeLong(operatingSystem.getElapsedCycles());
+            out.writeObject(checkpoint);
+        }
+    }
+
+    // Replaces every singleton other than the OperatingSystem itself, which is left to the caller
+    static Checkpoint restore(String path) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new GZIPInputStream(
+                new BufferedInputStream(new FileInputStream(path))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a checkpoint file: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + ": " + path);
+            }
+            long seed = in.readLong();
+            long elapsedCycles = in.readLong();
+            RandomSource.resume(seed, elapsedCycles);
+            Checkpoint checkpoint = (Checkpoint) in.readObject();
+            checkpoint.install();
+            return checkpoint;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Not a checkpoint file: " + path, e);
+        }
+    }
+
+    private void install() {
+        ResourceManager.restore(resourceManager);
+        MainMemory.configure(configuration.getMemoryCapacityMB(), configuration.getPageSizeMB(),
+                configuration.isDemandPaging(), configuration.getPageReplacement());
+        MainMemory.restore(mainMemory);
+        VirtualMemory.restore(virtualMemory);
+        MessagePasser.restore(messagePasser);
+        PipeManager.restore(pipeManager);
+    }
+
+    Configuration getConfiguration() {
+        return configuration;
+    }
+
+    OperatingSystem getOperatingSystem() {
+        return operatingSystem;
+    }
+
+}
@@ -0,0 +1,214 @@
+package Control;
+
+import Memory.PageReplacement;
+import Scheduling.MLQScheduler;
+import Scheduling.SJFScheduler;
+import Scheduling.ShortTermScheduler;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Describes the simulated hardware, must be passed to OperatingSystem.configure() before the OS is created
+public class Configuration implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_NUM_CORES = 2;
+    public static final int DEFAULT_HARDWARE_THREADS_PER_CORE = 4;
+    public static final int DEFAULT_MEMORY_CAPACITY_MB = 1024;
+    public static final int DEFAULT_PAGE_SIZE_MB = 2;
+
+    public static final int DEFAULT_MIGRATION_COST = 5;
+    public static final int DEFAULT_AFFINITY_THRESHOLD = 1;
+    public static final int DEFAULT_DETECTION_INTERVAL = 100;
+    public static final int DEFAULT_TERMINATED_HISTORY_SIZE = 1000;
+
+    private int numCores = DEFAULT_NUM_CORES;
+    private int hardwareThreadsPerCore = DEFAULT_HARDWARE_THREADS_PER_CORE;
+    private int memoryCapacityMB = DEFAULT_MEMORY_CAPACITY_MB;
+    private int pageSizeMB = DEFAULT_PAGE_SIZE_MB;
+    private boolean demandPaging = false;
+    private PageReplacement pageReplacement = PageReplacement.FIFO;
+    // Not saved in a checkpoint, since the schedulers have already been created by then
+    private transient List<Supplier<ShortTermScheduler>> schedulerFactories =
+            new ArrayList<>(Arrays.asList(SJFScheduler::new, MLQScheduler::new));
+    private boolean loadBalancing = false;
+    private int migrationCost = DEFAULT_MIGRATION_COST;
+    private int affinityThreshold = DEFAULT_AFFINITY_THRESHOLD;
+    private DeadlockStrategy deadlockStrategy = DeadlockStrategy.AVOIDANCE;
+    private DeadlockRecovery deadlockRecovery = DeadlockRecovery.TERMINATE;
+    private int detectionInterval = DEFAULT_DETECTION_INTERVAL;
+    private PriorityProtocol priorityProtocol = PriorityProtocol.NONE;
+    private int terminatedHistorySize = DEFAULT_TERMINATED_HISTORY_SIZE;
+    private String terminationLogPath = null;
+
+    public int getNumCores() {
+        return numCores;
+    }
+
+    public void setNumCores(int numCores) {
+        if (numCores < 1) {
+            throw new IllegalArgumentException("Number of cores must be positive");
+        }
+        this.numCores = numCores;
+    }
+
+    // Core i uses the scheduler created by factory i, the factories are repeated if there are more cores than factories
+    public List<Supplier<ShortTermScheduler>> getSchedulerFactories() {
+        return schedulerFactories;
+    }
+
+    public void setSchedulerFactories(List<Supplier<ShortTermScheduler>> schedulerFactories) {
+        if (schedulerFactories.isEmpty()) {
+            throw new IllegalArgumentException("At least one scheduler is required");
+        }
+        this.schedulerFactories = new ArrayList<>(schedulerFactories);
+    }
+
+    // When enabled, a core with an idle hardware thread and no ready processes steals one from the busiest core
+    public boolean isLoadBalancing() {
+        return loadBalancing;
+    }
+
+    public void setLoadBalancing(boolean loadBalancing) {
+        this.loadBalancing = loadBalancing;
+    }
+
+    // Cycles spent by the stealing hardware thread before a migrated process can run
+    public int getMigrationCost() {
+        return migrationCost;
+    }
+
+    public void setMigrationCost(int migrationCost) {
+        if (migrationCost < 0) {
+            throw new IllegalArgumentException("Migration cost must not be negative");
+        }
+        this.migrationCost = migrationCost;
+    }
+
+    // A process only leaves its core if more than this many processes are ready on that core
+    public int getAffinityThreshold() {
+        return affinityThreshold;
+    }
+
+    public void setAffinityThreshold(int affinityThreshold) {
+        if (affinityThreshold < 0) {
+            throw new IllegalArgumentException("Affinity threshold must not be negative");
+        }
+        this.affinityThreshold = affinityThreshold;
+    }
+
+    public DeadlockStrategy getDeadlockStrategy() {
+        return deadlockStrategy;
+    }
+
+    public void setDeadlockStrategy(DeadlockStrategy deadlockStrategy) {
+        this.deadlockStrategy = deadlockStrategy;
+    }
+
+    // Only used with DeadlockStrategy.DETECTION
+    public DeadlockRecovery getDeadlockRecovery() {
+        return deadlockRecovery;
+    }
+
+    public void setDeadlockRecovery(DeadlockRecovery deadlockRecovery) {
+        this.deadlockRecovery = deadlockRecovery;
+    }
+
+    // Cycles between deadlock detection runs, only used with DeadlockStrategy.DETECTION
+    public int getDetectionInterval() {
+        return detectionInterval;
+    }
+
+    public void setDetectionInterval(int detectionInterval) {
+        if (detectionInterval < 1) {
+            throw new IllegalArgumentException("Detection interval must be positive");
+        }
+        this.detectionInterval = detectionInterval;
+    }
+
+    // Only affects schedulers which use priorities, i.e. the MLQScheduler
+    public PriorityProtocol getPriorityProtocol() {
+        return priorityProtocol;
+    }
+
+    public void setPriorityProtocol(PriorityProtocol priorityProtocol) {
+        this.priorityProtocol = priorityProtocol;
+    }
+
+    // Number of terminated processes whose summaries are kept in memory
+    public int getTerminatedHistorySize() {
+        return terminatedHistorySize;
+    }
+
+    public void setTerminatedHistorySize(int terminatedHistorySize) {
+        if (terminatedHistorySize < 1) {
+            throw new IllegalArgumentException("Terminated history size must be positive");
+        }
+        this.terminatedHistorySize = terminatedHistorySize;
+    }
+
+    // CSV file which the summary of every terminated process is appended to, or null for none
+    public String getTerminationLogPath() {
+        return terminationLogPath;
+    }
+
+    public void setTerminationLogPath(String terminationLogPath) {
+        this.terminationLogPath = terminationLogPath;
+    }
+
+    public int getHardwareThreadsPerCore() {
+        return hardwareThreadsPerCore;
+    }
+
+    public void setHardwareThreadsPerCore(int hardwareThreadsPerCore) {
+        if (hardwareThreadsPerCore < 1) {
+            throw new IllegalArgumentException("Number of hardware threads per core must be positive");
+        }
+        this.hardwareThreadsPerCore = hardwareThreadsPerCore;
+    }
+
+    public int getMemoryCapacityMB() {
+        return memoryCapacityMB;
+    }
+
+    public void setMemoryCapacityMB(int memoryCapacityMB) {
+        if (memoryCapacityMB < 1) {
+            throw new IllegalArgumentException("Memory capacity must be positive");
+        }
+        this.memoryCapacityMB = memoryCapacityMB;
+    }
+
+    public int getPageSizeMB() {
+        return pageSizeMB;
+    }
+
+    public void setPageSizeMB(int pageSizeMB) {
+        // Page sizes are measured in bytes using an int
+        if (pageSizeMB < 1 || pageSizeMB > 1024) {
+            throw new IllegalArgumentException("Page size must be between 1 and 1024 MB");
+        }
+        this.pageSizeMB = pageSizeMB;
+    }
+
+    // When enabled, a page only gets a frame once it is first touched, rather than when its process is created
+    public boolean isDemandPaging() {
+        return demandPaging;
+    }
+
+    public void setDemandPaging(boolean demandPaging) {
+        this.demandPaging = demandPaging;
+    }
+
+    public PageReplacement getPageReplacement() {
+        return pageReplacement;
+    }
+
+    public void setPageReplacement(PageReplacement pageReplacement) {
+        this.pageReplacement = pageReplacement;
+    }
+
+}
@@ -0,0 +1,32 @@
+package Control;
+
+import Processes.Priority;
+
+import java.io.Serializable;
+import java.util.function.IntConsumer;
+
+// Guards a critical section. A process which can't acquire the lock right away joins a FIFO queue,
+// and is passed to admitted once it reaches the front of the queue and holds the lock
+// The lock never wakes up a process itself, so it is never called back into while its monitor is held
+interface CriticalSectionLock extends Serializable {
+
+    // Returns false if the process must wait, shared is only used by reader-writer locks
+    boolean acquire(int pid, boolean shared, Priority priority);
+
+    // Throws an IllegalStateException if the process doesn't hold the lock
+    void release(int pid, IntConsumer admitted);
+
+    // In case a waiting process is terminated early by its parent. The process may already have been admitted
+    // without having been woken up yet, in which case the lock is released as if by release()
+    void cancel(int pid, IntConsumer admitted);
+
+    int getWaitingCount();
+
+    // Returns null if no process is waiting
+    Priority getHighestWaitingPriority();
+
+    void forEachHolder(IntConsumer action);
+
+    void forEachWaiter(IntConsumer action);
+
+}
@@ -0,0 +1,183 @@
+package Control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+// Drives the simulation one cycle at a time. Every registered cycle task runs on its own thread,
+// and a barrier shared with the kernel thread marks the start and the end of each cycle
+// In single-threaded mode all tasks instead run on the kernel thread, one after another in registration order
+// A task which throws stops the engine, and the exception is rethrown on the kernel thread by runCycle()
+public class CycleEngine {
+
+    // A speed limit of MAX_SPEED runs cycles back to back with no throttling
+    public static final int MAX_SPEED = 0;
+    public static final int DEFAULT_CYCLES_PER_SECOND = 500;
+
+    private final List<String> taskNames;
+    private final List<Runnable> tasks;
+    private final List<Thread> threads;
+
+    private boolean singleThreaded = false;
+    private boolean multiThreadedRun;
+    private Phaser barrier;
+    private volatile boolean stopping;
+    // The first exception thrown by a task in a multi-threaded run
+    private final AtomicReference<Throwable> failure;
+
+    private volatile long nanosPerCycle;
+    private long nextCycleDeadline;
+
+    public CycleEngine() {
+        taskNames = new ArrayList<>();
+        tasks = new ArrayList<>();
+        threads = new ArrayList<>();
+        failure = new AtomicReference<>();
+        setCyclesPerSecond(DEFAULT_CYCLES_PER_SECOND);
+    }
+
+    // Tasks must be registered before start() and are discarded by stop()
+    public void register(String name, Runnable cycleTask) {
+        taskNames.add(name);
+        tasks.add(cycleTask);
+    }
+
+    // Takes effect the next time the engine is started
+    public void setSingleThreaded(boolean singleThreaded) {
+        this.singleThreaded = singleThreaded;
+    }
+
+    public void start() {
+        multiThreadedRun = !singleThreaded;
+        nextCycleDeadline = System.nanoTime();
+        if (!multiThreadedRun) {
+            return;
+        }
+        stopping = false;
+        failure.set(null);
+        // One party for each task plus one for the kernel thread
+        barrier = new Phaser(tasks.size() + 1);
+        for (int i = 0 ; i < tasks.size() ; i++) {
+            Thread thread = new Thread(worker(tasks.get(i)), taskNames.get(i));
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    // Called by the kernel thread, returns once every task has finished the cycle
+    // The kernel thread calls throttle() once it has finished its own work for the cycle
+    public void runCycle() {
+        if (multiThreadedRun) {
+            // Release all tasks to start the cycle
+            barrier.arriveAndAwaitAdvance();
+            // Wait for all tasks to finish the cycle
+            barrier.arriveAndAwaitAdvance();
+            // Both waits return straight away once a task has terminated the barrier
+            Throwable e = failure.get();
+            if (e != null) {
+                stopThreads();
+                if (e instanceof Error) {
+                    throw (Error) e;
+                }
+                throw (RuntimeException) e;
+            }
+        } else {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+        }
+    }
+
+    // True if the tasks of the current run each have their own thread
+    boolean isMultiThreaded() {
+        return multiThreadedRun;
+    }
+
+    public void stop() {
+        if (multiThreadedRun) {
+            stopThreads();
+        }
+        tasks.clear();
+        taskNames.clear();
+    }
+
+    private void stopThreads() {
+        stopping = true;
+        // Release all tasks so they can observe the stop request and exit
+        barrier.arriveAndAwaitAdvance();
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException ignored) {}
+        }
+        threads.clear();
+    }
+
+    // Simulates spending one additional cycle of time, e.g. to handle an interrupt
+    public void delay() {
+        throttle();
+    }
+
+    // May be changed at any time, including while the engine is running
+    public void setCyclesPerSecond(int cyclesPerSecond) {
+        if (cyclesPerSecond <= MAX_SPEED) {
+            nanosPerCycle = 0;
+        } else {
+            nanosPerCycle = TimeUnit.SECONDS.toNanos(1) / cyclesPerSecond;
+        }
+    }
+
+    public int getCyclesPerSecond() {
+        long nanos = nanosPerCycle;
+        if (nanos == 0) {
+            return MAX_SPEED;
+        }
+        return (int) (TimeUnit.SECONDS.toNanos(1) / nanos);
+    }
+
+    private Runnable worker(Runnable cycleTask) {
+        return () -> {
+            while (true) {
+                // Wait until start of new cycle is signaled, the phase is negative once the barrier is terminated
+                if (barrier.arriveAndAwaitAdvance() < 0 || stopping) {
+                    return;
+                }
+                try {
+                    cycleTask.run();
+                } catch (RuntimeException | Error e) {
+                    // Releases the kernel thread and every other task, which all stop at their next wait
+                    failure.compareAndSet(null, e);
+                    barrier.forceTermination();
+                    return;
+                }
+                // Signal that this task has finished the cycle
+                if (barrier.arriveAndAwaitAdvance() < 0) {
+                    return;
+                }
+            }
+        };
+    }
+
+    // Waits until the deadline of the current cycle, unless running at max speed
+    public void throttle() {
+        long nanos = nanosPerCycle;
+        long now = System.nanoTime();
+        if (nanos == 0) {
+            nextCycleDeadline = now;
+            return;
+        }
+        nextCycleDeadline += nanos;
+        // Don't try to catch up if the simulation fell behind, e.g. after the speed limit was raised
+        if (nextCycleDeadline < now - nanos) {
+            nextCycleDeadline = now;
+        }
+        while (now < nextCycleDeadline) {
+            LockSupport.parkNanos(nextCycleDeadline - now);
+            now = System.nanoTime();
+        }
+    }
+
+}
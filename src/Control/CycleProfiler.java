@@ -0,0 +1,101 @@
+package Control;
+
+/* Measures the wall-clock cost of each phase of a kernel cycle, only ever used by the kernel thread.
+ * The kernel thread marks the end of each phase as it goes, and the time since the previous mark is recorded
+ * in the histogram of that phase. Phases which only happen in some cycles, e.g. interrupt handling, are only
+ * recorded in those cycles, and time which isn't part of any phase, e.g. throttling, is skipped. */
+class CycleProfiler {
+
+    enum Phase {
+        // Retrying waiting resource requests, along with deadlock detection when it is due
+        RESOURCES("Resource Retry"),
+        // Skipping idle cycles and preparing the I/O module for the cycle
+        IO_ADVANCE("I/O Advance"),
+        // Running the hardware threads and the I/O module on the kernel thread in single-threaded mode
+        PROCESSOR("Processor"),
+        // Waiting for the threads running the hardware threads and the I/O module in multi-threaded mode
+        THREAD_WAIT("Thread Wait"),
+        // Includes the cycle of delay spent handling the interrupt when a speed limit is set
+        INTERRUPT("Interrupt"),
+        STATUS("Status"),
+        // Every phase recorded in the cycle
+        CYCLE("Whole Cycle");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final LatencyHistogram[] histograms;
+    private boolean enabled = true;
+    private long lastMark;
+    private long cycleTotal;
+
+    CycleProfiler() {
+        histograms = new LatencyHistogram[PHASES.length];
+        for (int i = 0 ; i < PHASES.length ; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    void startCycle() {
+        if (enabled) {
+            lastMark = System.nanoTime();
+            cycleTotal = 0;
+        }
+    }
+
+    void endPhase(Phase phase) {
+        if (enabled) {
+            long now = System.nanoTime();
+            long nanos = now - lastMark;
+            histograms[phase.ordinal()].record(nanos);
+            cycleTotal += nanos;
+            lastMark = now;
+        }
+    }
+
+    // Leaves the time since the last mark out of every phase
+    void skip() {
+        if (enabled) {
+            lastMark = System.nanoTime();
+        }
+    }
+
+    void endCycle() {
+        if (enabled) {
+            histograms[Phase.CYCLE.ordinal()].record(cycleTotal);
+        }
+    }
+
+    String getStatistics() {
+        if (!enabled) {
+            return "";
+        }
+        StringBuilder statistics = new StringBuilder("Cycle Phases (p50 / p99 / max):");
+        for (Phase phase : PHASES) {
+            LatencyHistogram histogram = histograms[phase.ordinal()];
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            statistics.append("\n\t").append(phase.name).append(": ")
+                    .append(formatMicros(histogram.getPercentile(50))).append(" / ")
+                    .append(formatMicros(histogram.getPercentile(99))).append(" / ")
+                    .append(formatMicros(histogram.getMax())).append(" us");
+        }
+        return statistics.toString();
+    }
+
+    private static String formatMicros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+
+}
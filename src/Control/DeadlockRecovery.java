@@ -0,0 +1,9 @@
+package Control;
+
+// Used to determine what happens to the victim chosen to break a detected deadlock
+public enum DeadlockRecovery {
+    // Victim is terminated, releasing all of its resources
+    TERMINATE,
+    // Victim's resources are preempted, rolling it back to holding none, and it keeps waiting for its request
+    ROLLBACK
+}
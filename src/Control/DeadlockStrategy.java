@@ -0,0 +1,9 @@
+package Control;
+
+// Used to determine how the ResourceManager deals with deadlock
+public enum DeadlockStrategy {
+    // Banker's Algorithm, requests which could lead to deadlock are denied
+    AVOIDANCE,
+    // Requests are granted whenever resources are available, deadlocks are detected and recovered from
+    DETECTION
+}
@@ -0,0 +1,199 @@
+package Control;
+
+import Processes.CriticalSection;
+import Processes.PCB;
+import Processes.Priority;
+import Processes.Template;
+import Tracing.TraceEvent;
+import Tracing.TraceRecorder;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Owns the lock of every critical section, critical sections which share a name share a lock
+// Locks are all created at boot, so the map is never modified while processes are running
+// Also applies the PriorityProtocol to the holders of each lock whenever its holders or waiters change
+/* Waking up a process and changing its priority take the monitor of its PCB and of the schedulers, while a
+ * terminating process holds its PCB monitor when it cancels its wait on a lock. So wakeups and priority changes are
+ * only worked out while the lock's monitor is held, and are carried out by Updates once it has been released. */
+class LockManager implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, CriticalSectionLock> locks;
+    // Identifies each lock in a trace, numbered in the order the locks were created
+    private final Map<String, Integer> lockIds;
+    private final PriorityProtocol priorityProtocol;
+    // Processes waiting on any lock, updated whenever a process joins or leaves a queue
+    private final AtomicInteger waiting;
+
+    LockManager(PriorityProtocol priorityProtocol) {
+        locks = new HashMap<>();
+        lockIds = new HashMap<>();
+        this.priorityProtocol = priorityProtocol;
+        waiting = new AtomicInteger();
+    }
+
+    void createLocks(List<Template> templates) {
+        for (Template template : templates) {
+            for (CriticalSection criticalSection : template.getCriticalSections()) {
+                if (!locks.containsKey(criticalSection.getName())) {
+                    lockIds.put(criticalSection.getName(), locks.size());
+                    locks.put(criticalSection.getName(), createLock(criticalSection));
+                }
+            }
+        }
+    }
+
+    // The PCB is passed in since the process may still be under construction, and so not yet known to the OS
+    boolean acquire(PCB p, CriticalSection criticalSection) {
+        CriticalSectionLock lock = locks.get(criticalSection.getName());
+        Updates updates = new Updates();
+        boolean acquired;
+        // Holding the lock's monitor keeps its holders and waiters fixed while priorities are worked out
+        synchronized (lock) {
+            acquired = lock.acquire(p.getPid(), criticalSection.isShared(), p.getPriority());
+            if (!acquired) {
+                waiting.incrementAndGet();
+            }
+            if (TraceRecorder.isEnabled()) {
+                TraceRecorder.record(acquired ? TraceEvent.LOCK_ACQUIRE : TraceEvent.LOCK_WAIT, p.getPid(),
+                        lockIds.get(criticalSection.getName()));
+            }
+            if (acquired && priorityProtocol == PriorityProtocol.CEILING) {
+                updates.setEffectivePriority(p, Priority.HIGH);
+            } else if (!acquired && priorityProtocol == PriorityProtocol.INHERITANCE) {
+                updateHolders(lock, updates);
+            }
+        }
+        updates.apply();
+        return acquired;
+    }
+
+    void release(int pid, CriticalSection criticalSection) {
+        CriticalSectionLock lock = locks.get(criticalSection.getName());
+        Updates updates = new Updates();
+        synchronized (lock) {
+            int waitingBefore = lock.getWaitingCount();
+            lock.release(pid, updates::wakeup);
+            // The release may admit any number of waiters
+            waiting.addAndGet(lock.getWaitingCount() - waitingBefore);
+            PCB p = OperatingSystem.getInstance().pidLookup(pid);
+            if (p != null) {
+                updates.setEffectivePriority(p, p.getPriority());
+            }
+            // Any waiters admitted by the release are now holders
+            updateHolders(lock, updates);
+        }
+        updates.apply();
+    }
+
+    void cancel(int pid, CriticalSection criticalSection) {
+        CriticalSectionLock lock = locks.get(criticalSection.getName());
+        Updates updates = new Updates();
+        synchronized (lock) {
+            int waitingBefore = lock.getWaitingCount();
+            lock.cancel(pid, updates::wakeup);
+            waiting.addAndGet(lock.getWaitingCount() - waitingBefore);
+            // The holders may have inherited their priority from the cancelled waiter
+            updateHolders(lock, updates);
+        }
+        updates.apply();
+    }
+
+    int getWaitingCount() {
+        return waiting.get();
+    }
+
+    // Maps each process waiting on a lock to the processes holding that lock, for deadlock detection
+    void findLockWaits(Map<Integer, int[]> holdersByWaiter) {
+        for (CriticalSectionLock lock : locks.values()) {
+            synchronized (lock) {
+                if (lock.getWaitingCount() == 0) {
+                    continue;
+                }
+                List<Integer> holders = new ArrayList<>();
+                lock.forEachHolder(holders::add);
+                int[] holderPids = holders.stream().mapToInt(Integer::intValue).toArray();
+                lock.forEachWaiter(pid -> holdersByWaiter.put(pid, holderPids));
+            }
+        }
+    }
+
+    // Works out the effective priority of every holder of the lock according to the PriorityProtocol
+    private void updateHolders(CriticalSectionLock lock, Updates updates) {
+        if (priorityProtocol == PriorityProtocol.NONE) {
+            return;
+        }
+        Priority waiting = lock.getHighestWaitingPriority();
+        lock.forEachHolder(pid -> {
+            PCB p = OperatingSystem.getInstance().pidLookup(pid);
+            if (p == null) {
+                return;
+            }
+            if (priorityProtocol == PriorityProtocol.CEILING) {
+                updates.setEffectivePriority(p, Priority.HIGH);
+            } else if (waiting != null && waiting.compareTo(p.getPriority()) > 0) {
+                updates.setEffectivePriority(p, waiting);
+            } else {
+                updates.setEffectivePriority(p, p.getPriority());
+            }
+        });
+    }
+
+    // Wakeups and priority changes worked out under a lock's monitor, carried out in order once it is released
+    // A priority change may be carried out just after a later one worked out under the same lock by another
+    // thread, in which case the holder keeps the older priority until its lock's holders or waiters next change
+    // A process admitted to the lock may be terminated before it is woken up, in which case cancelling its wait
+    // releases the lock and the wakeup is ignored. Admitted processes are looked up while the lock's monitor is
+    // held, so the wakeup can't reach a new process given the pid in the meantime
+    private static class Updates {
+        private final List<PCB> wakeups = new ArrayList<>();
+        private final List<PCB> processes = new ArrayList<>();
+        private final List<Priority> priorities = new ArrayList<>();
+
+        void wakeup(int pid) {
+            PCB p = OperatingSystem.getInstance().pidLookup(pid);
+            if (p != null) {
+                wakeups.add(p);
+            }
+        }
+
+        void setEffectivePriority(PCB p, Priority priority) {
+            processes.add(p);
+            priorities.add(priority);
+        }
+
+        void apply() {
+            for (int i = 0 ; i < processes.size() ; i++) {
+                PCB p = processes.get(i);
+                Priority priority = priorities.get(i);
+                if (p.getEffectivePriority() != priority) {
+                    p.setEffectivePriority(priority);
+                    OperatingSystem.getInstance().priorityChanged(p);
+                }
+            }
+            // Wakes up each process admitted to the lock, which now holds it
+            for (PCB p : wakeups) {
+                TraceRecorder.record(TraceEvent.LOCK_WAKEUP, p.getPid(), 0);
+                p.wakeup();
+            }
+        }
+    }
+
+    private static CriticalSectionLock createLock(CriticalSection criticalSection) {
+        switch (criticalSection.getType()) {
+            case SEMAPHORE:
+                return new Semaphore(criticalSection.getPermits());
+            case READ_WRITE:
+                return new ReadWriteLock();
+            default:
+                return new Mutex();
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package Control;
+
+import Processes.Priority;
+
+import java.util.function.IntConsumer;
+
+// Lets one process at a time into the critical section, and may only be released by the process holding it
+public class Mutex implements CriticalSectionLock {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int NO_OWNER = -1;
+
+    private int owner;
+    private final WaitQueue queue;
+
+    public Mutex() {
+        owner = NO_OWNER;
+        queue = new WaitQueue();
+    }
+
+    @Override
+    public synchronized boolean acquire(int pid, boolean shared, Priority priority) {
+        if (owner == NO_OWNER) {
+            owner = pid;
+            return true;
+        }
+        queue.add(pid, false, priority);
+        return false;
+    }
+
+    // Ownership is passed straight to the oldest waiter, if there is one
+    @Override
+    public synchronized void release(int pid, IntConsumer admitted) {
+        if (pid != owner) {
+            throw new IllegalStateException("Process " + pid + " released a mutex it does not hold");
+        }
+        if (queue.isEmpty()) {
+            owner = NO_OWNER;
+        } else {
+            owner = queue.poll();
+            admitted.accept(owner);
+        }
+    }
+
+    @Override
+    public synchronized void cancel(int pid, IntConsumer admitted) {
+        if (pid == owner) {
+            release(pid, admitted);
+        } else {
+            queue.remove(pid);
+        }
+    }
+
+    @Override
+    public synchronized int getWaitingCount() {
+        return queue.size();
+    }
+
+    @Override
+    public synchronized Priority getHighestWaitingPriority() {
+        return queue.getHighestPriority();
+    }
+
+    @Override
+    public synchronized void forEachHolder(IntConsumer action) {
+        if (owner != NO_OWNER) {
+            action.accept(owner);
+        }
+    }
+
+    @Override
+    public synchronized void forEachWaiter(IntConsumer action) {
+        queue.forEach(action);
+    }
+
+}
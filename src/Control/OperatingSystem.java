@@ -1,74 +1,103 @@
 package Control;
 
 import Communication.IPCStandard;
-import GUI.TaskManager;
+import Communication.MessagePasser;
+import Communication.PipeManager;
 import Memory.MainMemory;
 import Memory.Page;
 import Memory.Word;
 import Processes.*;
 import Processes.Process;
 import Processor.Processor;
+import Tracing.TraceEvent;
+import Tracing.TraceRecorder;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
-public class OperatingSystem {
+public class OperatingSystem implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     public static final int KERNEL_ID = 0;
-    private static final int CYCLE_DELAY_MS = 2;
     private static final int CYCLES_PER_STATUS_PRINTOUT = 200;
 
     private static OperatingSystem instance;
+    private static Configuration configuration = new Configuration();
 
+    // Recreated when the OS is restored from a checkpoint, along with every thread it runs
+    private transient CycleEngine cycleEngine;
+    // Timings are specific to the machine running the OS, so they are not carried over by a checkpoint
+    private transient CycleProfiler cycleProfiler;
     private final Processor processor;
     private final IoModule ioModule;
     private final MainMemory mainMemory;
 
     private long maxCycles;
     private long elapsedCycles;
+    private long nextStatusCycle = 0;
     private long startTime = 0;
     private long elapsedTime = 0;
-    private final Map<Integer, PCB> processes;
-    private final List<PCB> terminated;
+    private final ProcessTable processes;
+    // Hot fields of every live PCB, indexed by pid like the ProcessTable
+    private final ProcessStore processStore;
+    private final TerminationLog terminated;
     private final Set<Integer> waitingOnIo;
-    private final Map<Integer, int[]> waitingOnResources;
-    // One critical section semaphore per template
-    private final List<Semaphore> semaphores;
-    private final PidGenerator pidGenerator;
-
-    private TaskManager taskManager;
-
-    private boolean halt = false;
+    // Reused every cycle to collect resource requests granted to waiting processes
+    private final List<ResourceManager.Waiter> grantedResources;
+    private final DeadlockStrategy deadlockStrategy;
+    private final DeadlockRecovery deadlockRecovery;
+    private final int detectionInterval;
+    private long nextDetectionCycle = 0;
+    // Reused by every deadlock detection run
+    private final List<Integer> deadlocked;
+    private final Map<Integer, int[]> lockWaits;
+    private final LockManager lockManager;
+    private final StateTracker stateTracker;
+
+    private transient UserInterface userInterface;
+
+    private transient boolean halt = false;
+    private transient volatile boolean running = false;
+    private transient boolean timeSkipping = false;
 
     private OperatingSystem() {
-        processor = new Processor();
+        cycleEngine = new CycleEngine();
+        cycleProfiler = new CycleProfiler();
+        processor = new Processor(configuration);
         ioModule = new IoModule();
+        MainMemory.configure(configuration.getMemoryCapacityMB(), configuration.getPageSizeMB(),
+                configuration.isDemandPaging(), configuration.getPageReplacement());
         mainMemory = MainMemory.getInstance();
 
         elapsedCycles = 0;
-        // ConcurrentHashMap class & Collections.synchronized methods for thread safety
-        processes = new ConcurrentHashMap<>();
-        terminated = Collections.synchronizedList(new ArrayList<>());
+        // ProcessTable & Collections.synchronized methods for thread safety
+        processes = new ProcessTable();
+        processStore = new ProcessStore();
+        terminated = new TerminationLog(configuration.getTerminatedHistorySize(), configuration.getTerminationLogPath());
         waitingOnIo = Collections.synchronizedSet(new HashSet<>());
-        waitingOnResources = new ConcurrentHashMap<>();
-        // Semaphore & PidGenerator instance methods are synchronized for thread safety
-        semaphores = Collections.synchronizedList(new ArrayList<>());
-        pidGenerator = new PidGenerator();
+        grantedResources = new ArrayList<>();
+        deadlockStrategy = configuration.getDeadlockStrategy();
+        deadlockRecovery = configuration.getDeadlockRecovery();
+        detectionInterval = configuration.getDetectionInterval();
+        deadlocked = new ArrayList<>();
+        lockWaits = new HashMap<>();
+        ResourceManager.getInstance().setStrategy(deadlockStrategy);
+        // Lock instance methods are synchronized for thread safety
+        lockManager = new LockManager(configuration.getPriorityProtocol());
+        stateTracker = new StateTracker();
     }
 
-    public void boot(TaskManager taskManager) {
+    public void boot(UserInterface userInterface) {
 
-        this.taskManager = taskManager;
+        this.userInterface = userInterface;
 
         try {
             List<Template> templates = Template.getTemplates();
-            // Create one critical section semaphore for each template
-            for (int i = 0 ; i < templates.size() ; i++) {
-                semaphores.add(new Semaphore());
-            }
-            taskManager.requestNumProcesses(templates);
+            lockManager.createLocks(templates);
+            userInterface.requestNumProcesses(templates);
         } catch (MalformedTemplateException e) {
             System.out.println(e.getMessage());
             System.out.println("Exiting...");
@@ -82,83 +111,191 @@ public class OperatingSystem {
                 createProcess(templates.get(i));
             }
         }
-        taskManager.requestNumCycles();
+        userInterface.requestNumCycles();
     }
 
     public void setMaxCycles(long maxCycles) {
         this.maxCycles = maxCycles;
     }
 
+    // Speed limit in cycles per second, or CycleEngine.MAX_SPEED to run unthrottled
+    public void setSpeedLimit(int cyclesPerSecond) {
+        cycleEngine.setCyclesPerSecond(cyclesPerSecond);
+    }
+
+    public int getSpeedLimit() {
+        return cycleEngine.getCyclesPerSecond();
+    }
+
+    // Runs every hardware thread and the I/O module on the kernel thread, takes effect the next time the OS runs
+    // Combined with RandomSource.setSeed(), this makes runs reproducible
+    public void setSingleThreaded(boolean singleThreaded) {
+        cycleEngine.setSingleThreaded(singleThreaded);
+    }
+
+    // When enabled, cycles in which every process is waiting on I/O are skipped rather than simulated one by one
+    public void setTimeSkipping(boolean timeSkipping) {
+        this.timeSkipping = timeSkipping;
+    }
+
+    // When enabled, which is the default, the cost of each phase of a cycle is reported along with the statistics
+    public void setCycleProfiling(boolean cycleProfiling) {
+        cycleProfiler.setEnabled(cycleProfiling);
+    }
+
     public void runOS() {
-        ioModule.start();
-        processor.start();
+        running = true;
+        ioModule.start(cycleEngine);
+        processor.start(cycleEngine);
+        cycleEngine.start();
         startTime = System.currentTimeMillis();
-        for (PCB p : processes.values()) {
-            p.setStartTime(startTime);
-        }
-        while (processes.size() > 0 && elapsedCycles < maxCycles && !halt) {
-            for (Map.Entry<Integer,int[]> entry : waitingOnResources.entrySet()) {
-                int pid = entry.getKey();
-                int[] resourceRequest = entry.getValue();
-                PCB p = processes.get(pid);
-                if (p != null && ResourceManager.getInstance().requestResources(pid, resourceRequest)) {
-                    p.necessaryResourcesAcquired(resourceRequest);
+        processes.forEach(p -> p.setStartTime(startTime));
+        boolean finished = false;
+        // A failing cycle task rethrows from runCycle(), the OS must still be stopped so it can be run again
+        try {
+            while (processes.size() > 0 && elapsedCycles < maxCycles && !halt) {
+                cycleProfiler.startCycle();
+                ResourceManager.getInstance().retryWaiting(grantedResources);
+                for (ResourceManager.Waiter waiter : grantedResources) {
+                    PCB p = processes.get(waiter.pid);
+                    if (p != null) {
+                        p.necessaryResourcesAcquired(waiter.request);
+                    }
+                }
+                grantedResources.clear();
+                if (deadlockStrategy == DeadlockStrategy.DETECTION && isDetectionDue()) {
+                    recoverFromDeadlock();
+                    nextDetectionCycle = elapsedCycles + detectionInterval;
                 }
+                cycleProfiler.endPhase(CycleProfiler.Phase.RESOURCES);
+                if (timeSkipping && processor.isIdle()) {
+                    skipIdleCycles();
+                }
+                ioModule.advance();
+                cycleProfiler.endPhase(CycleProfiler.Phase.IO_ADVANCE);
+                // Blocks until the I/O module and all hardware threads have finished the cycle
+                cycleEngine.runCycle();
+                // Every hardware thread is now waiting for the next cycle, so pids of exited processes can be reused
+                processes.releaseRemoved();
+                cycleProfiler.endPhase(cycleEngine.isMultiThreaded()
+                        ? CycleProfiler.Phase.THREAD_WAIT : CycleProfiler.Phase.PROCESSOR);
+                cycleEngine.throttle();
+                cycleProfiler.skip();
+                // Check for an I/O interrupt
+                if (ioModule.interruptGenerated()) {
+                    ioModule.handleInterrupt();
+                    cycleProfiler.endPhase(CycleProfiler.Phase.INTERRUPT);
+                }
+                if (elapsedCycles >= nextStatusCycle) {
+                    sendStatus();
+                    nextStatusCycle = (elapsedCycles / CYCLES_PER_STATUS_PRINTOUT + 1) * CYCLES_PER_STATUS_PRINTOUT;
+                    cycleProfiler.endPhase(CycleProfiler.Phase.STATUS);
+                }
+                cycleProfiler.endCycle();
+                elapsedCycles++;
             }
-            ioModule.advance();
-            processor.advance();
-            // Busy wait until all threads have finished
-            while (!(processor.cycleFinished() && ioModule.cycleFinished()));
-            // Check for an I/O interrupt
-            if (ioModule.interruptGenerated()) {
-                ioModule.handleInterrupt();
+            sendStatus();
+            finished = true;
+        } finally {
+            cycleEngine.stop();
+            processor.stop();
+            long haltTime = System.currentTimeMillis();
+            elapsedTime += haltTime - startTime;
+            processes.forEach(p -> p.setHaltTime(haltTime));
+            terminated.flush();
+            TraceRecorder.flushTrace();
+            running = false;
+            if (finished && processes.size() == 0) {
+                userInterface.setCompleted();
+            } else {
+                userInterface.setHalted();
+            }
+        }
+    }
+
+    // Detection runs periodically, or right away if processes are waiting on resources while no process can run
+    // Idle cycles only trigger detection when allocations or waiters changed since the last run, since processes
+    // blocked on I/O or a critical section leave the processor idle for many cycles without changing anything
+    private boolean isDetectionDue() {
+        if (elapsedCycles >= nextDetectionCycle) {
+            return true;
+        }
+        ResourceManager resourceManager = ResourceManager.getInstance();
+        return processor.isIdle() && resourceManager.getWaitingCount() > 0 && resourceManager.isChangedSinceDetection();
+    }
+
+    // Breaks a detected deadlock by choosing a single victim, any remaining deadlock is found by a later detection run
+    private void recoverFromDeadlock() {
+        ResourceManager resourceManager = ResourceManager.getInstance();
+        // Processes blocked on a lock can only finish once its holders do, so they can close a cycle too
+        lockManager.findLockWaits(lockWaits);
+        resourceManager.findDeadlocked(deadlocked, lockWaits);
+        lockWaits.clear();
+        PCB victim = null;
+        for (int pid : deadlocked) {
+            PCB p = processes.get(pid);
+            // A rollback victim must hold resources, or the same deadlock and victim are found by every later run
+            if (deadlockRecovery == DeadlockRecovery.ROLLBACK && !resourceManager.hasAllocation(pid)) {
+                continue;
             }
-            if (elapsedCycles % CYCLES_PER_STATUS_PRINTOUT == 0) {
-                sendStatus();
+            // Victim is the process with the lowest priority, using the most recently created process to break ties
+            if (p != null && (victim == null
+                    || p.getPriority().compareTo(victim.getPriority()) < 0
+                    || (p.getPriority() == victim.getPriority() && p.getPid() > victim.getPid()))) {
+                victim = p;
             }
-            elapsedCycles++;
-            sleep();
         }
-        sendStatus();
-        ioModule.stop();
-        processor.stop();
-        long haltTime = System.currentTimeMillis();
-        elapsedTime += haltTime - startTime;
-        for (PCB p : processes.values()) {
-            p.setHaltTime(haltTime);
+        deadlocked.clear();
+        if (victim == null) {
+            return;
         }
-        if (processes.size() == 0) {
-            taskManager.setCompleted();
+        resourceManager.registerVictim();
+        if (deadlockRecovery == DeadlockRecovery.TERMINATE) {
+            victim.terminateProcess();
         } else {
-            taskManager.setHalted();
+            resourceManager.preemptResources(victim.getPid());
+            victim.resourcesPreempted();
+        }
+    }
+
+    // With no process able to run, nothing can change until the next I/O burst completes
+    // Jump straight to the cycle in which that happens, applying the skipped I/O cycles in bulk
+    private void skipIdleCycles() {
+        long skip = Math.min(ioModule.cyclesUntilNextCompletion() - 1, maxCycles - elapsedCycles - 1);
+        if (skip > 0) {
+            ioModule.skip((int) skip);
+            processor.skipIdleCycles(skip);
+            elapsedCycles += skip;
         }
     }
 
     private void sendStatus() {
         // Get all running processes sorted by PID
-        List<PCB> executingProcesses =
-                processes.values().stream()
-                        .filter(pcb -> pcb.getState() == State.RUN)
-                        .sorted(Comparator.comparingInt(PCB::getPid))
-                        .collect(Collectors.toList());
+        List<PCB> executingProcesses = stateTracker.getRunning();
 
         long elapsedMs = elapsedTime + System.currentTimeMillis() - startTime;
-        int waitingOnCritical = semaphores.stream().mapToInt(Semaphore::getWaitingCount).sum();
+        int waitingOnCritical = lockManager.getWaitingCount();
 
-        taskManager.updateRunningScene(
+        userInterface.updateRunningScene(
                 executingProcesses,
                 elapsedMs,
                 elapsedCycles,
                 processes.size(),
-                processor.getReadyCount(),
+                stateTracker.getCount(State.READY),
                 waitingOnIo.size(),
-                waitingOnResources.size(),
+                ResourceManager.getInstance().getWaitingCount(),
                 waitingOnCritical,
-                terminated.size(),
-                processor.getStatistics()
+                terminated.getCount(),
+                processor.getStatistics() + "\n\nResources: " + ResourceManager.getInstance().getStatistics()
+                        + "\n\nMemory: " + mainMemory.getStatistics() + getProfilerStatistics()
         );
     }
 
+    private String getProfilerStatistics() {
+        String statistics = cycleProfiler.getStatistics();
+        return statistics.isEmpty() ? "" : "\n\n" + statistics;
+    }
+
     public void halt() {
         halt = true;
     }
@@ -169,10 +306,12 @@ public class OperatingSystem {
         runOS();
     }
 
-    private void sleep() {
-        try {
-            TimeUnit.MILLISECONDS.sleep(CYCLE_DELAY_MS);
-        } catch (InterruptedException ignored) {}
+    // Must be called before the first call to getInstance()
+    public static void configure(Configuration configuration) {
+        if (instance != null) {
+            throw new IllegalStateException("OperatingSystem has already been created");
+        }
+        OperatingSystem.configuration = configuration;
     }
 
     public static OperatingSystem getInstance() {
@@ -182,38 +321,117 @@ public class OperatingSystem {
         return instance;
     }
 
-    public void createProcess(Template template) {
-        int pid = pidGenerator.getNextPid();
+    // Writes the full kernel state to a file, which can be restored in a later run to carry on from this point
+    public void saveCheckpoint(String path) throws IOException {
+        if (running) {
+            throw new IllegalStateException("The OS must be halted before a checkpoint is saved");
+        }
+        Checkpoint.save(path, configuration, this);
+    }
+
+    // Used instead of configure() and boot(), must be called before the first call to getInstance()
+    // The speed limit, threading mode and time skipping must be set again, since they aren't part of the checkpoint
+    public static OperatingSystem restoreCheckpoint(String path, UserInterface userInterface) throws IOException {
+        if (instance != null) {
+            throw new IllegalStateException("OperatingSystem has already been created");
+        }
+        Checkpoint checkpoint = Checkpoint.restore(path);
+        configuration = checkpoint.getConfiguration();
+        instance = checkpoint.getOperatingSystem();
+        instance.userInterface = userInterface;
+        userInterface.requestNumCycles();
+        return instance;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        cycleEngine = new CycleEngine();
+        cycleProfiler = new CycleProfiler();
+    }
+
+    // Returns the pid of the new process
+    public int createProcess(Template template) {
+        int pid = processes.allocatePid();
         IPCStandard ipcStandard;
         // Equal chance of being assigned either IPCStandard
-        Random random = new Random();
-        int standard = random.nextInt(2);
+        int standard = RandomSource.getInstance().nextInt(2);
         if (standard == 0) {
             ipcStandard = IPCStandard.MESSAGE_PASSING;
         } else {
             ipcStandard = IPCStandard.ORDINARY_PIPE;
         }
-        processes.put(pid, new PCB(template, pid, ipcStandard));
+        processes.put(new PCB(template, pid, ipcStandard));
+        return pid;
     }
 
-    public int createChildProcess(Template template, int parent, Process childProcess, IPCStandard ipcStandard) {
-        int pid = pidGenerator.getNextPid();
-        PCB p = new PCB(template, childProcess, pid, parent, ipcStandard);
-        processes.put(pid, p);
+    // The child shares the pages of its parent until either of them writes to a page
+    public int createChildProcess(Template template, int parent, Process childProcess, Page[] parentPageTable,
+                                  IPCStandard ipcStandard) {
+        int pid = processes.allocatePid();
+        TraceRecorder.record(TraceEvent.FORK, parent, pid);
+        PCB p = new PCB(template, childProcess, parentPageTable, pid, parent, ipcStandard);
+        processes.put(p);
         p.setStartTime(System.currentTimeMillis());
         return pid;
     }
 
+    // Only consistent when read by the kernel thread or during a cycle
+    public long getElapsedCycles() {
+        return elapsedCycles;
+    }
+
+    // Moves a ready process whose effective priority changed to the matching ready queue
+    public void priorityChanged(PCB p) {
+        processor.priorityChanged(p);
+    }
+
+    // Only a bounded number of the most recently terminated processes are kept, oldest first
+    public List<ProcessSummary> getRecentTerminations() {
+        return terminated.getRecent();
+    }
+
+    public void stateChanged(PCB p, State oldState, State newState) {
+        stateTracker.transition(p, oldState, newState);
+        if (oldState != newState) {
+            TraceRecorder.record(TraceEvent.STATE_CHANGE, p.getPid(), p.getCoreId(),
+                    TraceEvent.encodeStateChange(oldState, newState));
+        }
+    }
+
+    public ProcessStore getProcessStore() {
+        return processStore;
+    }
+
+    public int getNumCores() {
+        return processor.getNumCores();
+    }
+
     public void requestCPU(PCB p) {
         processor.request(p);
     }
 
-    public List<Page> requestMemory(int requestSizeMB) {
-        return mainMemory.requestMemory(requestSizeMB);
+    public List<Page> requestMemory(int pid, int requestSizeMB) {
+        return mainMemory.requestMemory(pid, requestSizeMB);
+    }
+
+    public Page[] shareMemory(int pid, Page[] pageTable) {
+        return mainMemory.shareMemory(pid, pageTable);
     }
 
-    public void releaseMemory(List<Page> pages) {
-        mainMemory.releaseMemory(pages);
+    public void releaseMemory(int pid, List<Page> pages) {
+        mainMemory.releaseMemory(pid, pages);
+    }
+
+    public int getPageFaults(int pid) {
+        return mainMemory.getPageFaults(pid);
+    }
+
+    public int getResidentPages(int pid) {
+        return mainMemory.getResidentPages(pid);
+    }
+
+    public int getPeakResidentPages(int pid) {
+        return mainMemory.getPeakResidentPages(pid);
     }
 
     public void requestIO(int pid) {
@@ -224,54 +442,65 @@ public class OperatingSystem {
         waitingOnIo.remove(pid);
     }
 
-    public void requestCriticalSection(int pid, int index) {
-        semaphores.get(index).wait(pid);
+    // Returns false if the process must wait for the critical section, in which case it is woken up later
+    public boolean requestCriticalSection(PCB p, CriticalSection criticalSection) {
+        return lockManager.acquire(p, criticalSection);
     }
 
-    public void releaseCriticalSection(int index) {
-        semaphores.get(index).signal();
+    public void releaseCriticalSection(int pid, CriticalSection criticalSection) {
+        lockManager.release(pid, criticalSection);
     }
 
-    public void requestResources(int pid, int[] resourceRequest) {
-        if (ResourceManager.getInstance().requestResources(pid, resourceRequest)) {
-            PCB p = processes.get(pid);
-            if (p != null) {
-                p.necessaryResourcesAcquired(resourceRequest);
-            }
-        } else {
-            waitingOnResources.put(pid, resourceRequest);
-        }
+    // Returns false if the process must wait for the resources, in which case they are granted later
+    public boolean requestResources(int pid, int[] resourceRequest) {
+        return ResourceManager.getInstance().requestOrWait(pid, resourceRequest);
     }
 
     public void releaseResources(int pid, int[] releasing) {
         ResourceManager.getInstance().releaseResources(pid, releasing);
     }
 
-    public void removeFromSemaphore(int pid, int index) {
-        semaphores.get(index).removeFromQueue(pid);
+    public void removeFromCriticalSection(int pid, CriticalSection criticalSection) {
+        lockManager.cancel(pid, criticalSection);
+    }
+
+    public Word readAcrossPageBreak(int pid, Page page1, int offset, Page page2) {
+        return mainMemory.readAcrossPageBreak(pid, page1, offset, page2);
+    }
+
+    public Word read(int pid, Page page, int offset) {
+        return mainMemory.read(pid, page, offset);
     }
 
-    public Word readAcrossPageBreak(Page page1, int offset, Page page2) {
-        return mainMemory.readAcrossPageBreak(page1, offset, page2);
+    public Page write(int pid, Page page) {
+        return mainMemory.write(pid, page);
     }
 
-    public Word read(Page page, int offset) {
-        return mainMemory.read(page, offset);
+    public void writeAcrossPageBreak(int pid, Page[] pageTable, int pageNumber) {
+        mainMemory.writeAcrossPageBreak(pid, pageTable, pageNumber);
     }
 
     public void exit(int pid, Set<Integer> children) {
         // Cascading termination
         for (int child : children) {
             PCB p = processes.get(child);
-            if (p != null) {
+            if (p != null && p.getParent() == pid) {
                 p.terminateProcess();
             }
         }
         PCB p = processes.remove(pid);
+        // Resource requests are withdrawn when the process is removed from the ResourceManager
         waitingOnIo.remove(pid);
-        waitingOnResources.remove(pid);
+        // The pid may be recycled, so nothing addressed to it may outlive the process
+        MessagePasser.getInstance().removeMailbox(pid);
+        PipeManager.getInstance().removePipe(pid);
         if (p != null) {
-            terminated.add(p);
+            TraceRecorder.record(TraceEvent.EXIT, pid, p.getCoreId(), 0);
+            PCB parent = processes.get(p.getParent());
+            if (parent != null) {
+                parent.childExited(pid);
+            }
+            terminated.record(new ProcessSummary(p, elapsedCycles));
             // For the purpose of recording core statistics
             processor.registerTermination(p);
         }
@@ -281,55 +510,64 @@ public class OperatingSystem {
         return processes.get(pid);
     }
 
-    // Wrapper class to prevent concurrent access of nextPid
-    private static class PidGenerator {
-        private int nextPid;
-
-        PidGenerator() {
-            nextPid = KERNEL_ID + 1;
-        }
-
-        synchronized int getNextPid() {
-            return nextPid++;
-        }
-    }
+    private class IoModule implements Serializable {
 
-    private class IoModule {
+        private static final long serialVersionUID = 1L;
 
         private static final int INTERRUPT_RANDOM_BOUND = 16;
 
-        private Thread ioThread;
-        private final Object threadCoordinator;
         private final Set<Integer> waitingThisCycle;
+        // Interrupts draw from a stream of their own, so skipping cycles doesn't disturb any other draws
+        private transient SplittableRandom interruptRandom;
         private boolean interrupt;
 
         IoModule() {
-            instantiateThread();
-            threadCoordinator = new Object();
             waitingThisCycle = new HashSet<>();
+            interruptRandom = RandomSource.getInstance().split();
             interrupt = false;
         }
 
-        void start() {
-            ioThread.start();
+        void start(CycleEngine cycleEngine) {
+            cycleEngine.register("I/O Module", this::progressWaiting);
         }
 
+        // The RandomSource has already been resumed by the time a checkpoint is read
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            interruptRandom = RandomSource.getInstance().split();
+        }
+
+        // Prepares the next cycle, which is executed by the CycleEngine
         void advance() {
             waitingThisCycle.addAll(waitingOnIo);
-            // Notify waiting ioThread to start a new cycle
-            synchronized (threadCoordinator) {
-                threadCoordinator.notifyAll();
-            }
             generateRandomInterrupt();
         }
 
-        void stop() {
-            ioThread.interrupt();
-            instantiateThread();
+        // Returns 0 if no process is receiving I/O
+        int cyclesUntilNextCompletion() {
+            int cycles = Integer.MAX_VALUE;
+            synchronized (waitingOnIo) {
+                for (int pid : waitingOnIo) {
+                    PCB p = pidLookup(pid);
+                    if (p != null) {
+                        cycles = Math.min(cycles, p.getRemainingIoCycles());
+                    }
+                }
+            }
+            return cycles == Integer.MAX_VALUE ? 0 : cycles;
         }
 
-        boolean cycleFinished() {
-            return ioThread.getState() == Thread.State.WAITING;
+        // Progress all processes receiving I/O by a number of cycles without completing any I/O burst
+        // Random interrupts are not generated for skipped cycles, since handling them only costs time
+        void skip(int cycles) {
+            synchronized (waitingOnIo) {
+                for (int pid : waitingOnIo) {
+                    PCB p = pidLookup(pid);
+                    if (p != null) {
+                        p.skipIoCycles(cycles);
+                    }
+                }
+            }
         }
 
         boolean interruptGenerated() {
@@ -339,39 +577,25 @@ public class OperatingSystem {
         // Simulates the use of CPU cycle time to handle an I/O interrupt
         void handleInterrupt() {
             interrupt = false;
-            sleep();
+            cycleEngine.delay();
         }
 
         // Provides a 1 in 16 chance of generating an I/O interrupt
         private void generateRandomInterrupt() {
-            Random random = new Random();
-            if (random.nextInt(INTERRUPT_RANDOM_BOUND) == 0) {
+            if (interruptRandom.nextInt(INTERRUPT_RANDOM_BOUND) == 0) {
                 interrupt = true;
             }
         }
 
-        private void instantiateThread() {
-            ioThread = new Thread(() -> {
-                boolean run = true;
-                while (run) {
-                    try {
-                        // Wait for signal to begin cycle
-                        synchronized (threadCoordinator) {
-                            threadCoordinator.wait();
-                        }
-                        // Progress all processes receiving I/O
-                        for (int pid : waitingThisCycle) {
-                            PCB p = pidLookup(pid);
-                            if (p != null) {
-                                p.progressOneCycle();
-                            }
-                        }
-                        waitingThisCycle.clear();
-                    } catch (InterruptedException e) {
-                        run = false;
-                    }
+        // Progress all processes receiving I/O
+        private void progressWaiting() {
+            for (int pid : waitingThisCycle) {
+                PCB p = pidLookup(pid);
+                if (p != null) {
+                    p.progressOneCycle();
                 }
-            });
+            }
+            waitingThisCycle.clear();
         }
 
     }
@@ -0,0 +1,11 @@
+package Control;
+
+// Used to determine how a process holding a critical section is scheduled while others wait on it
+public enum PriorityProtocol {
+    // Holders keep their own priority, so a low priority holder may hold up high priority waiters indefinitely
+    NONE,
+    // Holders run at the highest priority of any process waiting on their critical section
+    INHERITANCE,
+    // Holders run at the highest priority, the ceiling of every critical section since any process may use it
+    CEILING
+}
@@ -0,0 +1,89 @@
+package Control;
+
+import java.io.Serializable;
+
+import Processes.PCB;
+import Processes.Priority;
+
+// What is kept of a process once it terminates, much smaller than its PCB
+public class ProcessSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final String CSV_HEADER = "pid,template,priority,core,turnaroundMs,waitingMs,exitCycle,pageFaults,peakResidentPages";
+
+    private final int pid;
+    private final String templateName;
+    private final Priority priority;
+    private final int coreId;
+    private final long turnaroundTime;
+    private final long waitingTime;
+    private final long exitCycle;
+    private final int pageFaults;
+    private final int peakResidentPages;
+
+    ProcessSummary(PCB p, long exitCycle) {
+        pid = p.getPid();
+        templateName = p.getTemplateName();
+        priority = p.getPriority();
+        coreId = p.getCoreId();
+        turnaroundTime = p.getTurnaroundTime();
+        waitingTime = p.getWaitingTime();
+        this.exitCycle = exitCycle;
+        pageFaults = p.getPageFaults();
+        peakResidentPages = p.getPeakResidentPages();
+    }
+
+    // Pids are recycled, so a pid only identifies a process together with its exit cycle
+    public int getPid() {
+        return pid;
+    }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public int getCoreId() {
+        return coreId;
+    }
+
+    // In ms
+    public long getTurnaroundTime() {
+        return turnaroundTime;
+    }
+
+    // In ms
+    public long getWaitingTime() {
+        return waitingTime;
+    }
+
+    public long getExitCycle() {
+        return exitCycle;
+    }
+
+    public int getPageFaults() {
+        return pageFaults;
+    }
+
+    public int getPeakResidentPages() {
+        return peakResidentPages;
+    }
+
+    String toCsvRow() {
+        return pid + "," + quote(templateName) + "," + priority + "," + coreId + "," +
+                turnaroundTime + "," + waitingTime + "," + exitCycle + "," + pageFaults + "," + peakResidentPages;
+    }
+
+    // Template names come from file names, so may contain a comma, quote or line break which must be quoted (RFC 4180)
+    private static String quote(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+}
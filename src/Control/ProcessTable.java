@@ -0,0 +1,108 @@
+package Control;
+
+import Processes.PCB;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// Maps pids to PCBs through an array indexed by pid, so a lookup involves no hashing or boxing
+// Pids of exited processes are recycled, so the table only grows with the number of processes alive at once,
+// not with the number ever created. A rolling cursor hands out pids in increasing order and only wraps around
+// once it reaches the end of the table, so a pid is not reused until long after its process exited
+// A removed pid is only freed by releaseRemoved() at the next cycle boundary, so no hardware thread can still be
+// reading the ProcessStore slot of the exited process when it is claimed by a new process
+class ProcessTable implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Replaced by a larger copy when full, lookups read it without locking
+    private volatile AtomicReferenceArray<PCB> slots;
+    // Bit n is set while pid n is in use, including while its PCB is being created
+    private final BitSet allocated;
+    // Bit n is set while pid n was removed but can't be handed out yet
+    private final BitSet removed;
+    private int cursor;
+    private volatile int size;
+
+    ProcessTable() {
+        slots = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+        allocated = new BitSet(INITIAL_CAPACITY);
+        removed = new BitSet(INITIAL_CAPACITY);
+        // The kernel's pid is never handed out
+        allocated.set(OperatingSystem.KERNEL_ID);
+        cursor = OperatingSystem.KERNEL_ID + 1;
+        size = 0;
+    }
+
+    synchronized int allocatePid() {
+        int capacity = slots.length();
+        int pid = allocated.nextClearBit(cursor);
+        if (pid >= capacity) {
+            pid = allocated.nextClearBit(OperatingSystem.KERNEL_ID + 1);
+        }
+        if (pid >= capacity) {
+            grow(capacity * 2);
+            pid = capacity;
+        }
+        allocated.set(pid);
+        cursor = pid + 1;
+        return pid;
+    }
+
+    // The pid must have been allocated by allocatePid()
+    synchronized void put(PCB p) {
+        slots.set(p.getPid(), p);
+        size++;
+    }
+
+    // Returns null if no process with the pid exists, or it is still being created
+    PCB get(int pid) {
+        AtomicReferenceArray<PCB> current = slots;
+        return pid >= 0 && pid < current.length() ? current.get(pid) : null;
+    }
+
+    // The pid is freed for reuse by the next call to releaseRemoved(), returns null if no process with the pid exists
+    synchronized PCB remove(int pid) {
+        PCB p = get(pid);
+        if (p != null) {
+            slots.set(pid, null);
+            removed.set(pid);
+            size--;
+        }
+        return p;
+    }
+
+    // Called by the kernel thread between cycles, once no hardware thread can be running a removed process
+    synchronized void releaseRemoved() {
+        allocated.andNot(removed);
+        removed.clear();
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Visits every process in pid order, must only be used by the kernel thread while no cycle is running
+    void forEach(Consumer<PCB> action) {
+        AtomicReferenceArray<PCB> current = slots;
+        for (int pid = allocated.nextSetBit(0) ; pid >= 0 && pid < current.length() ; pid = allocated.nextSetBit(pid + 1)) {
+            PCB p = current.get(pid);
+            if (p != null) {
+                action.accept(p);
+            }
+        }
+    }
+
+    private void grow(int capacity) {
+        AtomicReferenceArray<PCB> grown = new AtomicReferenceArray<>(capacity);
+        for (int i = 0 ; i < slots.length() ; i++) {
+            grown.set(i, slots.get(i));
+        }
+        slots = grown;
+    }
+
+}
@@ -0,0 +1,66 @@
+package Control;
+
+import java.util.SplittableRandom;
+
+// Single source of randomness for the whole simulator
+// Each thread draws from its own generator, split from one seeded root generator, so drawing a random
+// number allocates nothing and needs no locking, and a single-threaded run is reproducible from its seed
+public class RandomSource {
+
+    private static RandomSource instance;
+
+    private final long seed;
+    private final SplittableRandom root;
+    private final ThreadLocal<SplittableRandom> generators;
+
+    // Mixes the cycle count into the seed of a run restored from a checkpoint
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private RandomSource(long seed) {
+        this(seed, seed);
+    }
+
+    private RandomSource(long seed, long rootSeed) {
+        this.seed = seed;
+        root = new SplittableRandom(rootSeed);
+        generators = ThreadLocal.withInitial(this::split);
+    }
+
+    public static RandomSource getInstance() {
+        if (instance == null) {
+            instance = new RandomSource(System.nanoTime());
+        }
+        return instance;
+    }
+
+    // Must be called before any random numbers are drawn
+    public static void setSeed(long seed) {
+        instance = new RandomSource(seed);
+    }
+
+    // Generator states aren't saved in a checkpoint, so a restored run draws from a stream derived from the seed
+    // of the checkpointed run and the cycle it was saved at. Restoring the same checkpoint twice draws the same numbers
+    static void resume(long seed, long elapsedCycles) {
+        instance = new RandomSource(seed, seed ^ (elapsedCycles * GOLDEN_GAMMA));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // Returns a value between 0 (inclusive) and bound (exclusive)
+    public int nextInt(int bound) {
+        return generators.get().nextInt(bound);
+    }
+
+    // Returns a value between 0 (inclusive) and 1 (exclusive)
+    public double nextDouble() {
+        return generators.get().nextDouble();
+    }
+
+    // For a subsystem which needs a stream of its own, independent of any other draws made on its thread
+    public synchronized SplittableRandom split() {
+        return root.split();
+    }
+
+}
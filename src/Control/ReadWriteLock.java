@@ -0,0 +1,105 @@
+package Control;
+
+import Processes.Priority;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+// Lets any number of readers, or a single writer, into the critical section at once
+// Waiters are admitted in FIFO order, so a steady stream of readers can't starve a writer
+public class ReadWriteLock implements CriticalSectionLock {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int NO_WRITER = -1;
+
+    private final Set<Integer> readers;
+    private int writer;
+    private final WaitQueue queue;
+
+    public ReadWriteLock() {
+        readers = new HashSet<>();
+        writer = NO_WRITER;
+        queue = new WaitQueue();
+    }
+
+    @Override
+    public synchronized boolean acquire(int pid, boolean shared, Priority priority) {
+        // Anyone already waiting goes first
+        if (!queue.isEmpty() || writer != NO_WRITER || (!shared && !readers.isEmpty())) {
+            queue.add(pid, shared, priority);
+            return false;
+        }
+        if (shared) {
+            readers.add(pid);
+        } else {
+            writer = pid;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void release(int pid, IntConsumer admitted) {
+        if (pid == writer) {
+            writer = NO_WRITER;
+        } else if (!readers.remove(pid)) {
+            throw new IllegalStateException("Process " + pid + " released a reader-writer lock it does not hold");
+        }
+        admitWaiters(admitted);
+    }
+
+    @Override
+    public synchronized void cancel(int pid, IntConsumer admitted) {
+        if (pid == writer || readers.contains(pid)) {
+            release(pid, admitted);
+            return;
+        }
+        queue.remove(pid);
+        // A cancelled writer may have been holding back the readers behind it
+        admitWaiters(admitted);
+    }
+
+    @Override
+    public synchronized int getWaitingCount() {
+        return queue.size();
+    }
+
+    @Override
+    public synchronized Priority getHighestWaitingPriority() {
+        return queue.getHighestPriority();
+    }
+
+    @Override
+    public synchronized void forEachHolder(IntConsumer action) {
+        if (writer != NO_WRITER) {
+            action.accept(writer);
+        }
+        for (int pid : readers) {
+            action.accept(pid);
+        }
+    }
+
+    @Override
+    public synchronized void forEachWaiter(IntConsumer action) {
+        queue.forEach(action);
+    }
+
+    // Admits every reader at the front of the queue, or the writer at the front once the lock is free
+    private void admitWaiters(IntConsumer admitted) {
+        while (writer == NO_WRITER && !queue.isEmpty()) {
+            if (queue.isSharedAtHead()) {
+                int reader = queue.poll();
+                readers.add(reader);
+                admitted.accept(reader);
+            } else {
+                if (readers.isEmpty()) {
+                    writer = queue.poll();
+                    admitted.accept(writer);
+                }
+                return;
+            }
+        }
+    }
+
+}
@@ -1,27 +1,94 @@
 package Control;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import Tracing.TraceEvent;
+import Tracing.TraceRecorder;
 
-// Manages a selection of unnamed system resources using the Banker's Algorithm to simulate deadlock avoidance
-public class ResourceManager {
+import java.io.Serializable;
+import java.util.*;
+
+// Manages a selection of unnamed system resources
+// Uses the Banker's Algorithm to simulate deadlock avoidance, or alternatively grants any request for available
+// resources and relies on the OperatingSystem to periodically detect deadlocks and recover from them
+public class ResourceManager implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     public static final int NUM_RESOURCE_TYPES = 8;
     public static final int NUM_RESOURCES_PER_TYPE = 16;
 
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int NO_SLOT = -1;
+    // Resource type recorded for a waiter whose request was available but would have left an unsafe state
+    private static final int UNSAFE = -1;
+
     private static ResourceManager instance;
 
-    private ResourceVector availableVector;
-    private final Map<Integer, ResourceVector> maxDemandVectors;
-    private final Map<Integer, ResourceVector> allocationVectors;
-    private final Map<Integer, ResourceVector> needVectors;
+    /* Each process known to the ResourceManager occupies a slot. The allocation and need vectors of
+     * all processes are stored back to back in flat arrays, with the vectors of the process in slot s
+     * starting at index s * NUM_RESOURCE_TYPES. Slots are reused once a process is removed, and the
+     * occupied slots are also kept in a dense list so that the safety check only visits live processes. */
+
+    private final int[] available;
+    private int[] allocation;
+    private int[] need;
+
+    private DeadlockStrategy strategy;
+
+    private int[] slotsByPid;
+    private int[] pidsBySlot;
+    private int[] freeSlots;
+    private int numFreeSlots;
+    private int numSlots;
+    private int[] activeSlots;
+    // Position of each slot in activeSlots
+    private int[] activeIndices;
+    private int numActive;
+
+    // needCounts[type * (NUM_RESOURCES_PER_TYPE + 1) + n] is the number of processes which need n of that type
+    // Used to find the largest need of each type without visiting every process
+    private final int[] needCounts;
+
+    // Reused by every safety check
+    private final int[] work;
+    private final int[] maxNeed;
+    private final BitSet finish;
+
+    // Requests which could not be granted immediately, in the order they were made
+    private final Map<Integer, Waiter> waiters;
+    // Bit i is set once resources of type i are released, waiting requests can only become grantable after that
+    private int releasedTypes;
+    // Set whenever allocations or waiters change, so detection isn't repeated on a state already checked
+    private boolean changedSinceDetection;
+
+    private long requestsGranted;
+    private long requestsDenied;
+    private long safetyChecks;
+    private long detectionRuns;
+    private long deadlocksDetected;
+    private long victims;
 
     private ResourceManager() {
-        availableVector = new ResourceVector(NUM_RESOURCES_PER_TYPE);
-        maxDemandVectors = new HashMap<>();
-        allocationVectors = new HashMap<>();
-        needVectors = new HashMap<>();
+        strategy = DeadlockStrategy.AVOIDANCE;
+        available = new int[NUM_RESOURCE_TYPES];
+        Arrays.fill(available, NUM_RESOURCES_PER_TYPE);
+        allocation = new int[INITIAL_CAPACITY * NUM_RESOURCE_TYPES];
+        need = new int[INITIAL_CAPACITY * NUM_RESOURCE_TYPES];
+        slotsByPid = new int[INITIAL_CAPACITY];
+        Arrays.fill(slotsByPid, NO_SLOT);
+        pidsBySlot = new int[INITIAL_CAPACITY];
+        freeSlots = new int[INITIAL_CAPACITY];
+        numFreeSlots = 0;
+        numSlots = 0;
+        activeSlots = new int[INITIAL_CAPACITY];
+        activeIndices = new int[INITIAL_CAPACITY];
+        numActive = 0;
+        needCounts = new int[NUM_RESOURCE_TYPES * (NUM_RESOURCES_PER_TYPE + 1)];
+        work = new int[NUM_RESOURCE_TYPES];
+        maxNeed = new int[NUM_RESOURCE_TYPES];
+        finish = new BitSet(INITIAL_CAPACITY);
+        waiters = new LinkedHashMap<>();
+        releasedTypes = 0;
+        changedSinceDetection = false;
     }
 
     public static ResourceManager getInstance() {
@@ -31,124 +98,469 @@ public class ResourceManager {
         return instance;
     }
 
+    // Replaces the instance with one read from a checkpoint
+    static void restore(ResourceManager resourceManager) {
+        instance = resourceManager;
+    }
+
+    public synchronized void setStrategy(DeadlockStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    // A maximum demand never exceeds the total number of resources, so adding a process can't make the state unsafe
     public synchronized void addProcess(int pid, int[] maxDemand) {
-        maxDemandVectors.put(pid, new ResourceVector(maxDemand));
-        allocationVectors.put(pid, new ResourceVector());
-        needVectors.put(pid, new ResourceVector(maxDemand));
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            if (maxDemand[i] < 0 || maxDemand[i] > NUM_RESOURCES_PER_TYPE) {
+                throw new IllegalArgumentException("Maximum demand exceeds total resources");
+            }
+        }
+        int slot = allocateSlot(pid);
+        int base = slot * NUM_RESOURCE_TYPES;
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            allocation[base + i] = 0;
+            need[base + i] = maxDemand[i];
+            needCounts[needCountIndex(i, maxDemand[i])]++;
+        }
     }
 
     public synchronized void removeProcess(int pid) {
-        maxDemandVectors.remove(pid);
-        needVectors.remove(pid);
-        ResourceVector allocated = allocationVectors.remove(pid);
-        if (allocated != null) {
-            availableVector = availableVector.add(allocated);
+        waiters.remove(pid);
+        int slot = getSlot(pid);
+        if (slot == NO_SLOT) {
+            return;
+        }
+        int base = slot * NUM_RESOURCE_TYPES;
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            markReleased(i, allocation[base + i]);
+            available[i] += allocation[base + i];
+            needCounts[needCountIndex(i, need[base + i])]--;
+        }
+        freeSlot(pid, slot);
+    }
+
+    // Takes back every resource allocated to a process, used to roll back a deadlock victim
+    public synchronized void preemptResources(int pid) {
+        int slot = getSlot(pid);
+        if (slot == NO_SLOT) {
+            return;
+        }
+        int base = slot * NUM_RESOURCE_TYPES;
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            markReleased(i, allocation[base + i]);
+            available[i] += allocation[base + i];
+            setNeed(base, i, need[base + i] + allocation[base + i]);
+            allocation[base + i] = 0;
         }
     }
 
     public synchronized void releaseResources(int pid, int[] releasing) {
-        ResourceVector releaseVector = new ResourceVector(releasing);
-        availableVector = availableVector.add(releaseVector);
-        allocationVectors.put(pid, allocationVectors.get(pid).subtract(releaseVector));
-        needVectors.put(pid, needVectors.get(pid).add(releaseVector));
-    }
-
-    public synchronized boolean requestResources(int pid, int[] request) {
-        ResourceVector requestVector = new ResourceVector(request);
-        if (requestVector.lessThanOrEqualTo(needVectors.get(pid))) {
-            if (requestVector.lessThanOrEqualTo(availableVector)) {
-
-                // Save current state in case we need to return to it
-                ResourceVector availableOld = availableVector;
-                ResourceVector allocationOld = allocationVectors.get(pid);
-                ResourceVector needOld = needVectors.get(pid);
-
-                // Update state as if request was fulfilled
-                availableVector = availableOld.subtract(requestVector);
-                allocationVectors.put(pid, allocationOld.add(requestVector));
-                needVectors.put(pid, needOld.subtract(requestVector));
-
-                if (safeState()) {
-                    return true;
-                } else {
-                    // Return to state before request
-                    availableVector = availableOld;
-                    allocationVectors.put(pid, allocationOld);
-                    needVectors.put(pid, needOld);
+        int slot = getSlot(pid);
+        if (slot == NO_SLOT) {
+            return;
+        }
+        int base = slot * NUM_RESOURCE_TYPES;
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            markReleased(i, releasing[i]);
+            available[i] += releasing[i];
+            allocation[base + i] -= releasing[i];
+            setNeed(base, i, need[base + i] + releasing[i]);
+        }
+    }
+
+    // If the request can't be granted immediately, the process waits until it is granted by retryWaiting()
+    public synchronized boolean requestOrWait(int pid, int[] request) {
+        if (requestResources(pid, request)) {
+            requestsGranted++;
+            traceRequest(TraceEvent.RESOURCE_GRANT, pid, request);
+            return true;
+        }
+        requestsDenied++;
+        traceRequest(TraceEvent.RESOURCE_DENY, pid, request);
+        Waiter waiter = new Waiter(pid, request);
+        waiter.shortType = findShortType(request);
+        waiters.put(pid, waiter);
+        changedSinceDetection = true;
+        return false;
+    }
+
+    /* Retries waiting requests in the order they were made, once resources were released since the last retry.
+     * Each waiter remembers a resource type it was short of when last tried. Available resources only grow
+     * through releases, so a waiter is passed over unless resources of that type were released since, and is
+     * only put through the Banker's safety check once its whole request fits in the available resources.
+     * Waiters whose requests were available but unsafe are retried after any release, since any release may
+     * make their request safe. Waiters whose requests are granted stop waiting and are added to granted */
+    public synchronized void retryWaiting(List<Waiter> granted) {
+        if (releasedTypes == 0) {
+            return;
+        }
+        int released = releasedTypes;
+        releasedTypes = 0;
+        Iterator<Waiter> iterator = waiters.values().iterator();
+        while (iterator.hasNext()) {
+            Waiter waiter = iterator.next();
+            if (waiter.shortType != UNSAFE && (released & (1 << waiter.shortType)) == 0) {
+                continue;
+            }
+            waiter.shortType = findShortType(waiter.request);
+            if (waiter.shortType != UNSAFE) {
+                continue;
+            }
+            if (requestResources(waiter.pid, waiter.request)) {
+                requestsGranted++;
+                traceRequest(TraceEvent.RESOURCE_GRANT, waiter.pid, waiter.request);
+                iterator.remove();
+                granted.add(waiter);
+            }
+        }
+    }
+
+    // Returns a resource type of which fewer are available than requested, or UNSAFE if the whole request is available
+    private int findShortType(int[] request) {
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            if (request[i] > available[i]) {
+                return i;
+            }
+        }
+        return UNSAFE;
+    }
+
+    private void markReleased(int type, int amount) {
+        if (amount > 0) {
+            releasedTypes |= 1 << type;
+            changedSinceDetection = true;
+        }
+    }
+
+    private static void traceRequest(TraceEvent event, int pid, int[] request) {
+        if (TraceRecorder.isEnabled()) {
+            int total = 0;
+            for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+                total += request[i];
+            }
+            TraceRecorder.record(event, pid, total);
+        }
+    }
+
+    public synchronized int getWaitingCount() {
+        return waiters.size();
+    }
+
+    /* Deadlock detection using the current allocations, the requests of waiting processes and the holders of
+     * the locks other processes are waiting on, given by lockHolders. Processes which aren't waiting on resources
+     * or a lock are assumed to eventually finish and release everything they hold. A process waiting on resources
+     * can finish if its request can be met once those releases happen, and a process waiting on a lock can finish
+     * once every holder of the lock can. Any process waiting on resources, or waiting on a lock while holding
+     * resources, which can never finish is deadlocked, and is added to deadlocked. */
+    public synchronized void findDeadlocked(List<Integer> deadlocked, Map<Integer, int[]> lockHolders) {
+        detectionRuns++;
+        changedSinceDetection = false;
+        if (waiters.isEmpty() && lockHolders.isEmpty()) {
+            return;
+        }
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            work[i] = available[i];
+        }
+        finish.clear();
+        for (int index = 0 ; index < numActive ; index++) {
+            int slot = activeSlots[index];
+            int pid = pidsBySlot[slot];
+            if (!waiters.containsKey(pid) && !lockHolders.containsKey(pid)) {
+                addAllocationToWork(slot);
+                finish.set(index);
+            }
+        }
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (Waiter waiter : waiters.values()) {
+                int slot = getSlot(waiter.pid);
+                int index = activeIndices[slot];
+                if (!finish.get(index) && requestLessThanOrEqualToWork(waiter.request)) {
+                    addAllocationToWork(slot);
+                    finish.set(index);
+                    progress = true;
+                }
+            }
+            for (Map.Entry<Integer, int[]> entry : lockHolders.entrySet()) {
+                int slot = getSlot(entry.getKey());
+                if (slot == NO_SLOT) {
+                    continue;
+                }
+                int index = activeIndices[slot];
+                if (!finish.get(index) && canFinish(entry.getValue())) {
+                    addAllocationToWork(slot);
+                    finish.set(index);
+                    progress = true;
                 }
+            }
+        }
+        for (Waiter waiter : waiters.values()) {
+            if (!finish.get(activeIndices[getSlot(waiter.pid)])) {
+                deadlocked.add(waiter.pid);
+            }
+        }
+        // A lock waiter holding no resources is left out, since preempting its resources wouldn't free anything
+        for (int pid : lockHolders.keySet()) {
+            int slot = getSlot(pid);
+            if (slot != NO_SLOT && !finish.get(activeIndices[slot]) && holdsResources(slot)) {
+                deadlocked.add(pid);
+            }
+        }
+        if (!deadlocked.isEmpty()) {
+            deadlocksDetected++;
+        }
+    }
+
+    // Whether allocations or waiters changed since the last call to findDeadlocked()
+    public synchronized boolean isChangedSinceDetection() {
+        return changedSinceDetection;
+    }
 
+    // Preempting the resources of a process holding none wouldn't free anything to break a deadlock
+    public synchronized boolean hasAllocation(int pid) {
+        int slot = getSlot(pid);
+        return slot != NO_SLOT && holdsResources(slot);
+    }
+
+    public synchronized void registerVictim() {
+        victims++;
+    }
+
+    public synchronized String getStatistics() {
+        String statistics = "\n\tRequests Granted: " + requestsGranted +
+                "\n\tRequests Denied: " + requestsDenied;
+        if (strategy == DeadlockStrategy.AVOIDANCE) {
+            return "Deadlock Avoidance (Banker's Algorithm)" + statistics +
+                    "\n\tSafety Checks: " + safetyChecks;
+        } else {
+            return "Deadlock Detection" + statistics +
+                    "\n\tDetection Runs: " + detectionRuns +
+                    "\n\tDeadlocks Detected: " + deadlocksDetected +
+                    "\n\tVictims: " + victims;
+        }
+    }
+
+    private boolean requestResources(int pid, int[] request) {
+        int slot = getSlot(pid);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        int base = slot * NUM_RESOURCE_TYPES;
+        boolean canFinishFirst = true;
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            if (request[i] > need[base + i] || request[i] > available[i]) {
+                return false;
             }
+            canFinishFirst = canFinishFirst && need[base + i] <= available[i];
         }
+
+        // Update state as if request was fulfilled
+        grant(base, request);
+
+        // Without deadlock avoidance, any request for available resources is granted
+        if (strategy == DeadlockStrategy.DETECTION) {
+            return true;
+        }
+
+        // The state before the request was safe. If the requesting process could have acquired its entire
+        // remaining need, it can finish first and return everything, leaving at least the resources which
+        // were available before the request, so the state must still be safe
+        if (canFinishFirst) {
+            return true;
+        }
+        safetyChecks++;
+        if (safeState()) {
+            return true;
+        }
+
+        // Return to state before request
+        ungrant(base, request);
         return false;
     }
 
+    private void grant(int base, int[] request) {
+        changedSinceDetection = true;
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            available[i] -= request[i];
+            allocation[base + i] += request[i];
+            setNeed(base, i, need[base + i] - request[i]);
+        }
+    }
+
+    private void ungrant(int base, int[] request) {
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            available[i] += request[i];
+            allocation[base + i] -= request[i];
+            setNeed(base, i, need[base + i] + request[i]);
+        }
+    }
+
     private boolean safeState() {
-        ResourceVector work = availableVector;
-        Set<Integer> finish = maxDemandVectors.keySet();
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            work[i] = available[i];
+            maxNeed[i] = findMaxNeed(i);
+        }
+        // If every process could acquire its entire remaining need right away, there is nothing to check
+        if (workCoversMaxNeed()) {
+            return true;
+        }
 
-        Integer candidatePid = findCandidate(work, finish);
-        while(candidatePid != null) {
-            work = work.add(allocationVectors.get(candidatePid));
-            candidatePid = findCandidate(work, finish);
+        finish.clear();
+        int numFinished = 0;
+        boolean progress = true;
+        // Each pass lets every process that can finish with the current work vector do so
+        while (progress) {
+            progress = false;
+            for (int index = finish.nextClearBit(0) ; index < numActive ; index = finish.nextClearBit(index + 1)) {
+                int base = activeSlots[index] * NUM_RESOURCE_TYPES;
+                if (needLessThanOrEqualToWork(base)) {
+                    for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+                        work[i] += allocation[base + i];
+                    }
+                    finish.set(index);
+                    numFinished++;
+                    progress = true;
+                    // Every remaining process can now finish
+                    if (workCoversMaxNeed()) {
+                        return true;
+                    }
+                }
+            }
         }
 
-        // Return true if all values have been removed from finish, false otherwise
-        return finish.size() == 0;
+        // Return true if all processes can finish, false otherwise
+        return numFinished == numActive;
     }
 
-    private Integer findCandidate(ResourceVector work, Set<Integer> finish) {
-        for (int pid : finish) {
-            if (needVectors.get(pid).lessThanOrEqualTo(work)) {
-                finish.remove(pid);
-                return pid;
+    private boolean needLessThanOrEqualToWork(int base) {
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            if (need[base + i] > work[i]) {
+                return false;
             }
         }
-        return null;
+        return true;
     }
 
-    private static class ResourceVector {
-
-        private final int[] values;
+    private boolean requestLessThanOrEqualToWork(int[] request) {
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            if (request[i] > work[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        ResourceVector() {
-            values = new int[NUM_RESOURCE_TYPES];
+    // Whether every process given has been found able to finish, processes unknown to the ResourceManager always can
+    private boolean canFinish(int[] pids) {
+        for (int pid : pids) {
+            int slot = getSlot(pid);
+            if (slot != NO_SLOT && !finish.get(activeIndices[slot])) {
+                return false;
+            }
         }
+        return true;
+    }
 
-        ResourceVector(int value) {
-            values = new int[NUM_RESOURCE_TYPES];
-            for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
-                values[i] = value;
+    private boolean holdsResources(int slot) {
+        int base = slot * NUM_RESOURCE_TYPES;
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            if (allocation[base + i] > 0) {
+                return true;
             }
         }
+        return false;
+    }
 
-        ResourceVector(int[] values) {
-            this.values = values.clone();
+    private void addAllocationToWork(int slot) {
+        int base = slot * NUM_RESOURCE_TYPES;
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            work[i] += allocation[base + i];
         }
+    }
 
-        boolean lessThanOrEqualTo(ResourceVector vector) {
-            boolean result = true;
-            for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
-                result = result && values[i] <= vector.values[i];
+    private boolean workCoversMaxNeed() {
+        for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
+            if (maxNeed[i] > work[i]) {
+                return false;
             }
-            return result;
         }
+        return true;
+    }
 
-        ResourceVector add(ResourceVector vector) {
-            int[] newValues = values.clone();
-            for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
-                newValues[i] += vector.values[i];
+    private int findMaxNeed(int type) {
+        for (int n = NUM_RESOURCES_PER_TYPE ; n > 0 ; n--) {
+            if (needCounts[needCountIndex(type, n)] > 0) {
+                return n;
             }
-            return new ResourceVector(newValues);
         }
+        return 0;
+    }
 
-        ResourceVector subtract(ResourceVector vector) {
-            int[] newValues = values.clone();
-            for (int i = 0 ; i < NUM_RESOURCE_TYPES ; i++) {
-                newValues[i] -= vector.values[i];
+    private void setNeed(int base, int type, int value) {
+        needCounts[needCountIndex(type, need[base + type])]--;
+        need[base + type] = value;
+        needCounts[needCountIndex(type, value)]++;
+    }
+
+    private static int needCountIndex(int type, int n) {
+        return type * (NUM_RESOURCES_PER_TYPE + 1) + n;
+    }
+
+    private int getSlot(int pid) {
+        return pid < slotsByPid.length ? slotsByPid[pid] : NO_SLOT;
+    }
+
+    private int allocateSlot(int pid) {
+        if (pid >= slotsByPid.length) {
+            int oldLength = slotsByPid.length;
+            slotsByPid = Arrays.copyOf(slotsByPid, Math.max(pid + 1, oldLength * 2));
+            Arrays.fill(slotsByPid, oldLength, slotsByPid.length, NO_SLOT);
+        }
+        int slot;
+        if (numFreeSlots > 0) {
+            slot = freeSlots[--numFreeSlots];
+        } else {
+            slot = numSlots++;
+            if (numSlots > activeSlots.length) {
+                int capacity = activeSlots.length * 2;
+                allocation = Arrays.copyOf(allocation, capacity * NUM_RESOURCE_TYPES);
+                need = Arrays.copyOf(need, capacity * NUM_RESOURCE_TYPES);
+                freeSlots = Arrays.copyOf(freeSlots, capacity);
+                pidsBySlot = Arrays.copyOf(pidsBySlot, capacity);
+                activeSlots = Arrays.copyOf(activeSlots, capacity);
+                activeIndices = Arrays.copyOf(activeIndices, capacity);
             }
-            return new ResourceVector(newValues);
         }
+        slotsByPid[pid] = slot;
+        pidsBySlot[slot] = pid;
+        activeSlots[numActive] = slot;
+        activeIndices[slot] = numActive;
+        numActive++;
+        return slot;
+    }
+
+    private void freeSlot(int pid, int slot) {
+        slotsByPid[pid] = NO_SLOT;
+        // Move the last active slot into the position being vacated
+        int index = activeIndices[slot];
+        int lastSlot = activeSlots[--numActive];
+        activeSlots[index] = lastSlot;
+        activeIndices[lastSlot] = index;
+        freeSlots[numFreeSlots++] = slot;
+    }
 
+    static class Waiter implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final int pid;
+        final int[] request;
+        // Only used by the ResourceManager, while holding its lock
+        private int shortType;
+
+        Waiter(int pid, int[] request) {
+            this.pid = pid;
+            this.request = request;
+        }
     }
 
 }
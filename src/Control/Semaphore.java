@@ -1,51 +1,79 @@
 package Control;
 
-import Processes.PCB;
+import Processes.Priority;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntConsumer;
 
-public class Semaphore {
-    private int value;
-    private final Queue<Integer> queue;
+// Counting semaphore, letting up to a fixed number of processes into the critical section at once
+public class Semaphore implements CriticalSectionLock {
+    private static final long serialVersionUID = 1L;
 
-    public Semaphore() {
-        value = 1;
-        queue = new LinkedList<>();
+    private int permits;
+    private final Set<Integer> holders;
+    private final WaitQueue queue;
+
+    public Semaphore(int permits) {
+        this.permits = permits;
+        holders = new HashSet<>();
+        queue = new WaitQueue();
     }
 
-    public synchronized void wait(int pid) {
-        value--;
-        if (value < 0) {
-            queue.add(pid);
-        } else {
-            wakeup(pid);
+    @Override
+    public synchronized boolean acquire(int pid, boolean shared, Priority priority) {
+        if (permits > 0) {
+            permits--;
+            holders.add(pid);
+            return true;
         }
+        queue.add(pid, false, priority);
+        return false;
     }
 
-    public synchronized void signal() {
-        value++;
-        if (value <= 0) {
-            int pid = queue.remove();
-            wakeup(pid);
+    // The permit is passed straight to the oldest waiter, if there is one
+    @Override
+    public synchronized void release(int pid, IntConsumer admitted) {
+        if (!holders.remove(pid)) {
+            throw new IllegalStateException("Process " + pid + " released a semaphore it does not hold");
+        }
+        if (queue.isEmpty()) {
+            permits++;
+        } else {
+            int next = queue.poll();
+            holders.add(next);
+            admitted.accept(next);
         }
     }
 
-    // In case a process is terminated early by its parent
-    public synchronized void removeFromQueue(int pid) {
-        if (queue.remove(pid)) {
-            value++;
+    @Override
+    public synchronized void cancel(int pid, IntConsumer admitted) {
+        if (holders.contains(pid)) {
+            release(pid, admitted);
+        } else {
+            queue.remove(pid);
         }
     }
 
+    @Override
     public synchronized int getWaitingCount() {
         return queue.size();
     }
 
-    private void wakeup(int pid) {
-        PCB p = OperatingSystem.getInstance().pidLookup(pid);
-        if (p != null) {
-            p.wakeup();
+    @Override
+    public synchronized Priority getHighestWaitingPriority() {
+        return queue.getHighestPriority();
+    }
+
+    @Override
+    public synchronized void forEachHolder(IntConsumer action) {
+        for (int pid : holders) {
+            action.accept(pid);
         }
     }
+
+    @Override
+    public synchronized void forEachWaiter(IntConsumer action) {
+        queue.forEach(action);
+    }
 }
@@ -0,0 +1,56 @@
+package Control;
+
+import Processes.PCB;
+import Processes.State;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Counts the processes in each State and keeps the set of running processes, updated on every state transition
+// A status update then only visits the running processes, no matter how many processes exist
+class StateTracker implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AtomicIntegerArray counts;
+    private final Set<PCB> running;
+
+    StateTracker() {
+        counts = new AtomicIntegerArray(State.values().length);
+        running = ConcurrentHashMap.newKeySet();
+    }
+
+    // oldState is null for a process which was just created
+    void transition(PCB p, State oldState, State newState) {
+        if (oldState == newState) {
+            return;
+        }
+        if (oldState != null) {
+            counts.decrementAndGet(oldState.ordinal());
+            if (oldState == State.RUN) {
+                running.remove(p);
+            }
+        }
+        counts.incrementAndGet(newState.ordinal());
+        if (newState == State.RUN) {
+            running.add(p);
+        }
+    }
+
+    int getCount(State state) {
+        return counts.get(state.ordinal());
+    }
+
+    // Sorted by pid
+    List<PCB> getRunning() {
+        List<PCB> snapshot = new ArrayList<>(running);
+        snapshot.sort(Comparator.comparingInt(PCB::getPid));
+        return snapshot;
+    }
+
+}
@@ -0,0 +1,113 @@
+package Control;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+// Records every terminated process as a ProcessSummary. Only a bounded ring of the most recent summaries is kept
+// in memory, while the full history is optionally streamed to an append-only CSV file, so memory use stays flat
+// no matter how many processes are created
+class TerminationLog implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ProcessSummary[] recent;
+    // Index in recent of the next summary to be recorded
+    private int next;
+    private int count;
+
+    private final String path;
+    // Null if the history isn't streamed to a file, or writing to the file failed
+    private transient BufferedWriter writer;
+
+    TerminationLog(int capacity, String path) {
+        recent = new ProcessSummary[capacity];
+        next = 0;
+        count = 0;
+        this.path = path;
+        if (path != null) {
+            open(path);
+        }
+    }
+
+    synchronized void record(ProcessSummary summary) {
+        recent[next] = summary;
+        next = (next + 1) % recent.length;
+        count++;
+        if (writer != null) {
+            try {
+                writer.write(summary.toCsvRow());
+                writer.newLine();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    // Total number of processes terminated, not just those still kept in memory
+    synchronized int getCount() {
+        return count;
+    }
+
+    // Most recently terminated processes, oldest first
+    synchronized List<ProcessSummary> getRecent() {
+        List<ProcessSummary> summaries = new ArrayList<>();
+        for (int i = 0 ; i < recent.length ; i++) {
+            ProcessSummary summary = recent[(next + i) % recent.length];
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    // Called whenever the OS halts, so the file is complete while the simulation is paused or over
+    synchronized void flush() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    private void open(String path) {
+        File file = new File(path);
+        boolean empty = !file.exists() || file.length() == 0;
+        try {
+            writer = new BufferedWriter(new FileWriter(file, true));
+            if (empty) {
+                writer.write(ProcessSummary.CSV_HEADER);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // A log restored from a checkpoint carries on appending to the same file
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (path != null) {
+            open(path);
+        }
+    }
+
+    // The simulation carries on without the file rather than failing
+    private void fail(IOException e) {
+        System.out.println("Unable to write termination log: " + e.getMessage());
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {}
+        }
+        writer = null;
+    }
+
+}
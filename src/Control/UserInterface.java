@@ -0,0 +1,34 @@
+package Control;
+
+import Processes.PCB;
+import Processes.Template;
+
+import java.util.List;
+
+// Callbacks used by the OperatingSystem to interact with whatever is driving it, e.g. the GUI or a batch run
+public interface UserInterface {
+
+    // Expected to eventually call OperatingSystem.createProcesses()
+    void requestNumProcesses(List<Template> templates);
+
+    // Expected to eventually call OperatingSystem.setMaxCycles() and start OperatingSystem.runOS()
+    void requestNumCycles();
+
+    void updateRunningScene(
+            List<PCB> runningProcesses,
+            long elapsedMs,
+            long elapsedCycles,
+            int numRunning,
+            int numReady,
+            int numIo,
+            int numResources,
+            int numCritical,
+            int numTerminated,
+            String processorStats
+    );
+
+    void setHalted();
+
+    void setCompleted();
+
+}
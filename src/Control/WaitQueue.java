@@ -0,0 +1,140 @@
+package Control;
+
+import Processes.Priority;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// FIFO queue of processes waiting on a lock. Each waiting process has a node in a doubly linked list,
+// indexed by pid, so adding a waiter, removing the oldest and cancelling any waiter are all O(1)
+class WaitQueue implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // The list is written out waiter by waiter, since serializing the linked nodes would recurse once per waiter
+    private transient Map<Integer, Node> nodes;
+    private transient Node head;
+    private transient Node tail;
+    // Number of waiters with each priority, indexed by ordinal
+    private transient int[] priorityCounts;
+
+    WaitQueue() {
+        nodes = new HashMap<>();
+        priorityCounts = new int[Priority.values().length];
+    }
+
+    void add(int pid, boolean shared, Priority priority) {
+        Node node = new Node(pid, shared, priority);
+        nodes.put(pid, node);
+        priorityCounts[priority.ordinal()]++;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+            node.prev = tail;
+        }
+        tail = node;
+    }
+
+    // Returns the pid of the oldest waiter, the queue must not be empty
+    int poll() {
+        Node node = head;
+        unlink(node);
+        return node.pid;
+    }
+
+    // Returns false if the process wasn't waiting
+    boolean remove(int pid) {
+        Node node = nodes.get(pid);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    // True if the oldest waiter wants shared access, the queue must not be empty
+    boolean isSharedAtHead() {
+        return head.shared;
+    }
+
+    // Returns null if the queue is empty
+    Priority getHighestPriority() {
+        for (int i = priorityCounts.length - 1 ; i >= 0 ; i--) {
+            if (priorityCounts[i] > 0) {
+                return Priority.values()[i];
+            }
+        }
+        return null;
+    }
+
+    // Visits the waiters from oldest to newest
+    void forEach(IntConsumer action) {
+        for (Node node = head ; node != null ; node = node.next) {
+            action.accept(node.pid);
+        }
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(nodes.size());
+        for (Node node = head ; node != null ; node = node.next) {
+            out.writeInt(node.pid);
+            out.writeBoolean(node.shared);
+            out.writeObject(node.priority);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        nodes = new HashMap<>();
+        priorityCounts = new int[Priority.values().length];
+        int size = in.readInt();
+        for (int i = 0 ; i < size ; i++) {
+            add(in.readInt(), in.readBoolean(), (Priority) in.readObject());
+        }
+    }
+
+    private void unlink(Node node) {
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        nodes.remove(node.pid);
+        priorityCounts[node.priority.ordinal()]--;
+    }
+
+    private static class Node {
+        private final int pid;
+        private final boolean shared;
+        private final Priority priority;
+        private Node prev;
+        private Node next;
+
+        Node(int pid, boolean shared, Priority priority) {
+            this.pid = pid;
+            this.shared = shared;
+            this.priority = priority;
+        }
+    }
+
+}
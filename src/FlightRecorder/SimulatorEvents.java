@@ -0,0 +1,236 @@
+package FlightRecorder;
+
+import Control.OperatingSystem;
+import Tracing.TraceEvent;
+import Tracing.TraceListener;
+import Tracing.TraceRecorder;
+import jdk.jfr.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Emits simulator events to Java Flight Recorder, so scheduling, paging and resource decisions can be viewed in JMC
+ * alongside what the JVM is doing. The events are only passed in by the TraceRecorder while a recording is running,
+ * so with no recording the only cost is the listener check in TraceRecorder.record().
+ * Requires Java 11, so this package is compiled separately and only loaded through TraceRecorder. */
+public class SimulatorEvents implements TraceListener, FlightRecorderListener {
+
+    private static final String CATEGORY = "OS Simulator";
+
+    @Name("os.ContextSwitch")
+    @Label("Context Switch")
+    @Category({CATEGORY, "Scheduling"})
+    static class ContextSwitchEvent extends Event {
+        @Label("Cycle")
+        long cycle;
+        @Label("Core")
+        int core;
+        @Label("PID")
+        int pid;
+        @Label("Previous PID")
+        @Description("Kernel id if the hardware thread was idle")
+        int previousPid;
+    }
+
+    @Name("os.PageFault")
+    @Label("Page Fault")
+    @Category({CATEGORY, "Memory"})
+    static class PageFaultEvent extends Event {
+        @Label("Cycle")
+        long cycle;
+        @Label("PID")
+        int pid;
+        @Label("Frame")
+        int frame;
+    }
+
+    @Name("os.PageEviction")
+    @Label("Page Eviction")
+    @Description("Victim page evicted to make room for a faulting page")
+    @Category({CATEGORY, "Memory"})
+    static class PageEvictionEvent extends Event {
+        @Label("Cycle")
+        long cycle;
+        @Label("Faulting PID")
+        int pid;
+        @Label("Frame")
+        int frame;
+    }
+
+    @Name("os.ResourceRequest")
+    @Label("Resource Request")
+    @Category({CATEGORY, "Resources"})
+    static class ResourceRequestEvent extends Event {
+        @Label("Cycle")
+        long cycle;
+        @Label("PID")
+        int pid;
+        @Label("Granted")
+        boolean granted;
+        @Label("Resources Requested")
+        long requested;
+    }
+
+    @Name("os.CriticalSectionWait")
+    @Label("Critical Section Wait")
+    @Description("Time from a process blocking on a critical section lock until it is woken up holding the lock")
+    @Category({CATEGORY, "Synchronization"})
+    static class CriticalSectionWaitEvent extends Event {
+        @Label("Start Cycle")
+        long cycle;
+        @Label("Cycles Waited")
+        long cyclesWaited;
+        @Label("PID")
+        int pid;
+        @Label("Lock")
+        long lockId;
+    }
+
+    @Name("os.Fork")
+    @Label("Fork")
+    @Category({CATEGORY, "Processes"})
+    static class ForkEvent extends Event {
+        @Label("Cycle")
+        long cycle;
+        @Label("Parent PID")
+        int parent;
+        @Label("Child PID")
+        int child;
+    }
+
+    @Name("os.Exit")
+    @Label("Exit")
+    @Category({CATEGORY, "Processes"})
+    static class ExitEvent extends Event {
+        @Label("Cycle")
+        long cycle;
+        @Label("PID")
+        int pid;
+    }
+
+    // Waits which have begun but not yet ended, by pid
+    private final Map<Integer, CriticalSectionWaitEvent> waits;
+
+    private SimulatorEvents() {
+        waits = new ConcurrentHashMap<>();
+    }
+
+    // Called reflectively by TraceRecorder.registerFlightRecorder()
+    public static void register() {
+        SimulatorEvents events = new SimulatorEvents();
+        FlightRecorder.addListener(events);
+        // A recording started from the command line is already running before the listener is added
+        if (FlightRecorder.isInitialized()) {
+            events.recordingStateChanged(null);
+        }
+    }
+
+    @Override
+    public void recordingStateChanged(Recording changed) {
+        boolean recording = false;
+        for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (r.getState() == RecordingState.RUNNING) {
+                recording = true;
+            }
+        }
+        if (!recording) {
+            waits.clear();
+        }
+        TraceRecorder.setListener(recording ? this : null);
+    }
+
+    @Override
+    public void onEvent(TraceEvent event, int pid, int core, long argument) {
+        switch (event) {
+            case DISPATCH:
+                ContextSwitchEvent contextSwitch = new ContextSwitchEvent();
+                if (contextSwitch.shouldCommit()) {
+                    contextSwitch.cycle = getCycle();
+                    contextSwitch.core = core;
+                    contextSwitch.pid = pid;
+                    contextSwitch.previousPid = (int) argument;
+                    contextSwitch.commit();
+                }
+                break;
+            case PAGE_FAULT:
+                PageFaultEvent pageFault = new PageFaultEvent();
+                if (pageFault.shouldCommit()) {
+                    pageFault.cycle = getCycle();
+                    pageFault.pid = pid;
+                    pageFault.frame = (int) argument;
+                    pageFault.commit();
+                }
+                break;
+            case PAGE_EVICT:
+                PageEvictionEvent eviction = new PageEvictionEvent();
+                if (eviction.shouldCommit()) {
+                    eviction.cycle = getCycle();
+                    eviction.pid = pid;
+                    eviction.frame = (int) argument;
+                    eviction.commit();
+                }
+                break;
+            case RESOURCE_GRANT:
+            case RESOURCE_DENY:
+                ResourceRequestEvent request = new ResourceRequestEvent();
+                if (request.shouldCommit()) {
+                    request.cycle = getCycle();
+                    request.pid = pid;
+                    request.granted = event == TraceEvent.RESOURCE_GRANT;
+                    request.requested = argument;
+                    request.commit();
+                }
+                break;
+            case LOCK_WAIT:
+                CriticalSectionWaitEvent wait = new CriticalSectionWaitEvent();
+                if (wait.isEnabled()) {
+                    wait.begin();
+                    wait.cycle = getCycle();
+                    wait.pid = pid;
+                    wait.lockId = argument;
+                    waits.put(pid, wait);
+                }
+                break;
+            case LOCK_WAKEUP:
+                endWait(waits.remove(pid));
+                break;
+            case FORK:
+                ForkEvent fork = new ForkEvent();
+                if (fork.shouldCommit()) {
+                    fork.cycle = getCycle();
+                    fork.parent = pid;
+                    fork.child = (int) argument;
+                    fork.commit();
+                }
+                break;
+            case EXIT:
+                // A process may be terminated by its parent while waiting, and its pid recycled
+                waits.remove(pid);
+                ExitEvent exit = new ExitEvent();
+                if (exit.shouldCommit()) {
+                    exit.cycle = getCycle();
+                    exit.pid = pid;
+                    exit.commit();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void endWait(CriticalSectionWaitEvent wait) {
+        if (wait == null) {
+            return;
+        }
+        wait.end();
+        if (wait.shouldCommit()) {
+            wait.cyclesWaited = getCycle() - wait.cycle;
+            wait.commit();
+        }
+    }
+
+    private static long getCycle() {
+        return OperatingSystem.getInstance().getElapsedCycles();
+    }
+
+}
@@ -1,6 +1,8 @@
 package GUI;
 
+import Control.CycleEngine;
 import Control.OperatingSystem;
+import Control.UserInterface;
 import Processes.PCB;
 import Processes.Priority;
 import Processes.Template;
@@ -20,13 +22,13 @@ import javafx.stage.Stage;
 import java.util.ArrayList;
 import java.util.List;
 
-public class TaskManager extends Application {
+public class TaskManager extends Application implements UserInterface {
 
     private final int INITIAL_SCENE_WIDTH = 300;
     private final int INITIAL_SCENE_HEIGHT = 300;
 
     private final int RUNNING_SCENE_WIDTH = 800;
-    private final int RUNNING_SCENE_HEIGHT = 550;
+    private final int RUNNING_SCENE_HEIGHT = 600;
 
     private boolean halted;
     private Label statusLabel;
@@ -79,6 +81,7 @@ public class TaskManager extends Application {
         return new Scene(bootPane, INITIAL_SCENE_WIDTH, INITIAL_SCENE_HEIGHT);
     }
 
+    @Override
     public void requestNumProcesses(List<Template> templates) {
         FlowPane requestPane = new FlowPane(Orientation.VERTICAL);
         requestPane.setAlignment(Pos.CENTER);
@@ -124,6 +127,7 @@ public class TaskManager extends Application {
         stage.setScene(new Scene(requestPane, INITIAL_SCENE_WIDTH, INITIAL_SCENE_HEIGHT));
     }
 
+    @Override
     public void requestNumCycles() {
         Label label1 = new Label("Choose number of cycles to run before halting:");
         TextField textField = new TextField();
@@ -292,11 +296,30 @@ public class TaskManager extends Application {
             }
         });
 
-        runningPane.getChildren().addAll(topLabel, centralPane, btToggleExecution, hbox);
+        Label speedLabel = new Label("Speed Limit (cycles/sec, " + CycleEngine.MAX_SPEED + " = max speed):");
+        TextField speedTextField = new TextField(Integer.toString(OperatingSystem.getInstance().getSpeedLimit()));
+        speedTextField.setPrefColumnCount(6);
+        Button btSetSpeed = new Button("Apply");
+        btSetSpeed.setOnAction((event) -> {
+            try {
+                int cyclesPerSecond = Integer.parseInt(speedTextField.getCharacters().toString());
+                OperatingSystem.getInstance().setSpeedLimit(cyclesPerSecond);
+            } catch (NumberFormatException e) {
+                speedTextField.setText(Integer.toString(OperatingSystem.getInstance().getSpeedLimit()));
+            }
+        });
+
+        HBox speedPane = new HBox();
+        speedPane.setAlignment(Pos.CENTER);
+        speedPane.setSpacing(10);
+        speedPane.getChildren().addAll(speedLabel, speedTextField, btSetSpeed);
+
+        runningPane.getChildren().addAll(topLabel, centralPane, btToggleExecution, speedPane, hbox);
 
         return new Scene(runningPane, RUNNING_SCENE_WIDTH, RUNNING_SCENE_HEIGHT);
     }
 
+    @Override
     public void updateRunningScene(
             List<PCB> runningProcesses,
             long elapsedMs,
@@ -329,7 +352,9 @@ public class TaskManager extends Application {
             processPane.getChildren().clear();
             processPane.add(new Label("PID"), 0, 0);
             processPane.add(new Label("Priority     "), 1, 0);
-            processPane.add(new Label("Template File Name"), 2, 0);
+            processPane.add(new Label("Template File Name     "), 2, 0);
+            processPane.add(new Label("Page Faults     "), 3, 0);
+            processPane.add(new Label("Resident Pages"), 4, 0);
 
             if (runningProcesses.size() > 0) {
                 for (int i = 0; i < runningProcesses.size(); i++) {
@@ -346,6 +371,8 @@ public class TaskManager extends Application {
                     }
                     processPane.add(new Label(priorityString), 1, i + 1);
                     processPane.add(new Label(p.getTemplateName()), 2, i + 1);
+                    processPane.add(new Label(Integer.toString(p.getPageFaults())), 3, i + 1);
+                    processPane.add(new Label(Integer.toString(p.getResidentPages())), 4, i + 1);
                 }
             }
 
@@ -353,11 +380,14 @@ public class TaskManager extends Application {
                 processPane.add(new Label("---"), 0, i + 1);
                 processPane.add(new Label("---"), 1, i + 1);
                 processPane.add(new Label("---"), 2, i + 1);
+                processPane.add(new Label("---"), 3, i + 1);
+                processPane.add(new Label("---"), 4, i + 1);
             }
 
         });
     }
 
+    @Override
     public void setHalted() {
         Platform.runLater(() -> {
             if (!halted) {
@@ -368,6 +398,7 @@ public class TaskManager extends Application {
         });
     }
 
+    @Override
     public void setCompleted() {
         Platform.runLater(() -> {
             halted = true;
@@ -1,8 +1,10 @@
 import GUI.TaskManager;
+import Tracing.TraceRecorder;
 import javafx.application.Application;
 
 public class Loader {
     public static void main(String[] args) {
+        TraceRecorder.registerFlightRecorder();
         // Launch GUI
         Application.launch(TaskManager.class, args);
     }
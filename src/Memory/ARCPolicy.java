@@ -0,0 +1,125 @@
+package Memory;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/* Adaptive Replacement Cache (Megiddo and Modha). Resident pages are split between RECENT, pages accessed once since
+ * they were faulted in, and FREQUENT, pages accessed again since. Pages evicted from each list are remembered in a
+ * ghost list of its own, and a fault on a remembered page moves the target size of RECENT towards whichever list
+ * would have kept it resident. The victim is taken from RECENT while it is larger than its target, otherwise from
+ * FREQUENT. The ghost lists are insertion ordered sets of pages, and are trimmed so that at most numFrames pages are
+ * remembered beyond those resident in each list, so every operation is O(1). */
+public class ARCPolicy extends PageReplacementPolicy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int RECENT = 0;
+    private static final int FREQUENT = 1;
+
+    private final int capacity;
+    private final FrameLists lists;
+    // Page held in each frame tracked
+    private final Page[] pages;
+    private final LinkedHashSet<Page> recentGhosts;
+    private final LinkedHashSet<Page> frequentGhosts;
+    // Target size of RECENT
+    private int target;
+    // Ghost whose fault the target has already been adapted to when its victim was selected
+    private Page adaptedTo;
+
+    public ARCPolicy(int numFrames) {
+        capacity = numFrames;
+        lists = new FrameLists(numFrames, 2);
+        pages = new Page[numFrames];
+        recentGhosts = new LinkedHashSet<>();
+        frequentGhosts = new LinkedHashSet<>();
+        target = 0;
+        adaptedTo = null;
+    }
+
+    @Override
+    public void admit(int frame, Page page) {
+        pages[frame] = page;
+        if (page != adaptedTo) {
+            adapt(page);
+        }
+        adaptedTo = null;
+        if (recentGhosts.remove(page) || frequentGhosts.remove(page)) {
+            lists.addLast(FREQUENT, frame);
+        } else {
+            lists.addLast(RECENT, frame);
+        }
+        trimGhosts();
+    }
+
+    @Override
+    public void hit(int frame) {
+        lists.moveToLast(FREQUENT, frame);
+    }
+
+    @Override
+    public int selectVictim(Page incoming, int pinnedFrame) {
+        adapt(incoming);
+        adaptedTo = incoming;
+        int recent = lists.size(RECENT);
+        boolean fromRecent = recent > 0 && (recent > target || (recent == target && frequentGhosts.contains(incoming)))
+                || lists.isEmpty(FREQUENT);
+        int frame = lists.removeFirstExcept(fromRecent ? RECENT : FREQUENT, pinnedFrame);
+        // The pinned frame was the only one in the list chosen
+        if (frame == FrameLists.NONE) {
+            fromRecent = !fromRecent;
+            frame = lists.removeFirstExcept(fromRecent ? RECENT : FREQUENT, pinnedFrame);
+        }
+        if (fromRecent) {
+            recentGhosts.add(pages[frame]);
+        } else {
+            frequentGhosts.add(pages[frame]);
+        }
+        pages[frame] = null;
+        return frame;
+    }
+
+    @Override
+    public void free(int frame) {
+        lists.remove(frame);
+        pages[frame] = null;
+    }
+
+    @Override
+    public void forget(Page page) {
+        recentGhosts.remove(page);
+        frequentGhosts.remove(page);
+    }
+
+    @Override
+    public String name() {
+        return "ARC";
+    }
+
+    // A fault on a ghost means its list was evicted from too early, so the list is given a larger share of frames
+    private void adapt(Page page) {
+        if (recentGhosts.contains(page)) {
+            int delta = Math.max(frequentGhosts.size() / recentGhosts.size(), 1);
+            target = Math.min(target + delta, capacity);
+        } else if (frequentGhosts.contains(page)) {
+            int delta = Math.max(recentGhosts.size() / frequentGhosts.size(), 1);
+            target = Math.max(target - delta, 0);
+        }
+    }
+
+    private void trimGhosts() {
+        while (lists.size(RECENT) + recentGhosts.size() > capacity && !recentGhosts.isEmpty()) {
+            removeOldest(recentGhosts);
+        }
+        while (lists.size(RECENT) + lists.size(FREQUENT) + recentGhosts.size() + frequentGhosts.size() > 2 * capacity) {
+            removeOldest(frequentGhosts.isEmpty() ? recentGhosts : frequentGhosts);
+        }
+    }
+
+    private static void removeOldest(LinkedHashSet<Page> ghosts) {
+        Iterator<Page> oldest = ghosts.iterator();
+        oldest.next();
+        oldest.remove();
+    }
+
+}
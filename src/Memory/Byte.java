@@ -1,11 +1,16 @@
 package Memory;
 
+import java.io.Serializable;
+
 // A class used to represent a byte of information
-public class Byte {
+public class Byte implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     // Since this is just simulated memory, we store the physical address
     // from which this imaginary byte would have been retrieved
-    private final int byteAddress;
-    Byte(int byteAddress) {
+    // Memory may be larger than 2 GB, so physical addresses are longs
+    private final long byteAddress;
+    Byte(long byteAddress) {
         this.byteAddress = byteAddress;
     }
 }
@@ -0,0 +1,60 @@
+package Memory;
+
+// The hand sweeps over the frames in order, clearing the referenced bit of each page it passes over, and the first
+// page found with its bit already clear is the victim. Each hit sets a single bit, and a sweep past a page clears
+// a bit set by an earlier hit, so selecting a victim is amortized O(1)
+public class ClockPolicy extends PageReplacementPolicy {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean[] resident;
+    private final boolean[] referenced;
+    private int hand;
+
+    public ClockPolicy(int numFrames) {
+        resident = new boolean[numFrames];
+        referenced = new boolean[numFrames];
+        hand = 0;
+    }
+
+    @Override
+    public void admit(int frame, Page page) {
+        resident[frame] = true;
+        // The page has just been accessed to fault it in
+        referenced[frame] = true;
+    }
+
+    @Override
+    public void hit(int frame) {
+        referenced[frame] = true;
+    }
+
+    @Override
+    public int selectVictim(Page incoming, int pinnedFrame) {
+        while (true) {
+            int frame = hand;
+            hand = (hand + 1) % resident.length;
+            if (!resident[frame] || frame == pinnedFrame) {
+                continue;
+            }
+            if (referenced[frame]) {
+                referenced[frame] = false;
+            } else {
+                resident[frame] = false;
+                return frame;
+            }
+        }
+    }
+
+    @Override
+    public void free(int frame) {
+        resident[frame] = false;
+        referenced[frame] = false;
+    }
+
+    @Override
+    public String name() {
+        return "Clock";
+    }
+
+}
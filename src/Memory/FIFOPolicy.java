@@ -0,0 +1,38 @@
+package Memory;
+
+public class FIFOPolicy extends PageReplacementPolicy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int QUEUE = 0;
+
+    private final FrameLists queue;
+
+    public FIFOPolicy(int numFrames) {
+        queue = new FrameLists(numFrames, 1);
+    }
+
+    @Override
+    public void admit(int frame, Page page) {
+        queue.addLast(QUEUE, frame);
+    }
+
+    @Override
+    public void hit(int frame) {}
+
+    @Override
+    public int selectVictim(Page incoming, int pinnedFrame) {
+        return queue.removeFirstExcept(QUEUE, pinnedFrame);
+    }
+
+    @Override
+    public void free(int frame) {
+        queue.remove(frame);
+    }
+
+    @Override
+    public String name() {
+        return "FIFO";
+    }
+
+}
@@ -0,0 +1,62 @@
+package Memory;
+
+import java.io.Serializable;
+
+// Tracks which page each frame holds, and which frames are free, in arrays indexed by frame number
+// Free frames are kept on a stack of frame numbers, so allocating and freeing a frame is O(1) and never boxes
+// The order frames are evicted in is up to the PageReplacementPolicy, the allocator only hands out free frames
+class FrameAllocator implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Page held by each frame, or null if the frame is free
+    private final Page[] pages;
+    // The top of the stack is freeFrames[freeCount - 1]
+    private final int[] freeFrames;
+    private int freeCount;
+
+    FrameAllocator(int numFrames) {
+        pages = new Page[numFrames];
+        freeFrames = new int[numFrames];
+        // Frames are first handed out in ascending order
+        for (int i = 0 ; i < numFrames ; i++) {
+            freeFrames[i] = numFrames - 1 - i;
+        }
+        freeCount = numFrames;
+    }
+
+    int getNumFrames() {
+        return pages.length;
+    }
+
+    int getFreeCount() {
+        return freeCount;
+    }
+
+    boolean hasFreeFrame() {
+        return freeCount > 0;
+    }
+
+    // Returns the number of the frame the page is placed in, there must be a free frame
+    int allocate(Page page) {
+        if (freeCount == 0) {
+            throw new IllegalStateException("No free frame");
+        }
+        int frame = freeFrames[--freeCount];
+        pages[frame] = page;
+        return frame;
+    }
+
+    // Returns the page which the frame held
+    Page free(int frame) {
+        Page page = pages[frame];
+        pages[frame] = null;
+        freeFrames[freeCount++] = frame;
+        return page;
+    }
+
+    static long getStartAddress(int frame) {
+        return (long) frame * Page.getSizeBytes();
+    }
+
+}
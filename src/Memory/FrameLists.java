@@ -0,0 +1,108 @@
+package Memory;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+// Doubly linked lists of frame numbers held in primitive arrays indexed by frame number, so adding, removing and
+// moving a frame is O(1) and never allocates. A frame is in at most one of the lists at a time
+class FrameLists implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int NONE = -1;
+
+    private final int[] next;
+    private final int[] previous;
+    // List holding each frame, or NONE
+    private final int[] lists;
+
+    private final int[] heads;
+    private final int[] tails;
+    private final int[] sizes;
+
+    FrameLists(int numFrames, int numLists) {
+        next = new int[numFrames];
+        previous = new int[numFrames];
+        lists = new int[numFrames];
+        Arrays.fill(lists, NONE);
+        heads = new int[numLists];
+        tails = new int[numLists];
+        sizes = new int[numLists];
+        Arrays.fill(heads, NONE);
+        Arrays.fill(tails, NONE);
+    }
+
+    int getList(int frame) {
+        return lists[frame];
+    }
+
+    int size(int list) {
+        return sizes[list];
+    }
+
+    boolean isEmpty(int list) {
+        return sizes[list] == 0;
+    }
+
+    void addLast(int list, int frame) {
+        int tail = tails[list];
+        previous[frame] = tail;
+        next[frame] = NONE;
+        if (tail == NONE) {
+            heads[list] = frame;
+        } else {
+            next[tail] = frame;
+        }
+        tails[list] = frame;
+        lists[frame] = list;
+        sizes[list]++;
+    }
+
+    // Does nothing if the frame isn't in any list
+    void remove(int frame) {
+        int list = lists[frame];
+        if (list == NONE) {
+            return;
+        }
+        if (previous[frame] == NONE) {
+            heads[list] = next[frame];
+        } else {
+            next[previous[frame]] = next[frame];
+        }
+        if (next[frame] == NONE) {
+            tails[list] = previous[frame];
+        } else {
+            previous[next[frame]] = previous[frame];
+        }
+        lists[frame] = NONE;
+        sizes[list]--;
+    }
+
+    // Removes and returns the frame added to the list longest ago, or NONE if the list is empty
+    int removeFirst(int list) {
+        int frame = heads[list];
+        if (frame != NONE) {
+            remove(frame);
+        }
+        return frame;
+    }
+
+    // Removes and returns the frame added to the list longest ago other than the excluded frame, or NONE if the list
+    // holds no other frame
+    int removeFirstExcept(int list, int excluded) {
+        int frame = heads[list];
+        if (frame != NONE && frame == excluded) {
+            frame = next[frame];
+        }
+        if (frame != NONE) {
+            remove(frame);
+        }
+        return frame;
+    }
+
+    void moveToLast(int list, int frame) {
+        remove(frame);
+        addLast(list, frame);
+    }
+
+}
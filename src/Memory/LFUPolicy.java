@@ -0,0 +1,64 @@
+package Memory;
+
+// Each access frequency has a list of the frames accessed that often, least recently used first. A hit moves a frame
+// to the list of the next frequency, and the victim is the head of the lowest non-empty list, which is kept track of
+// as frames move, so every operation is O(1). Frequencies saturate at MAX_FREQUENCY, beyond which pages are only
+// ordered by recency, so pages which were hot long ago can still be evicted once others catch up with them
+public class LFUPolicy extends PageReplacementPolicy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_FREQUENCY = 255;
+
+    // List i holds the frames accessed i + 1 times since they were admitted
+    private final FrameLists frequencies;
+    // No list below this one holds any frame, frames being freed may leave it lower than the lowest non-empty list
+    private int minFrequency;
+
+    public LFUPolicy(int numFrames) {
+        frequencies = new FrameLists(numFrames, MAX_FREQUENCY);
+        minFrequency = 0;
+    }
+
+    @Override
+    public void admit(int frame, Page page) {
+        frequencies.addLast(0, frame);
+        minFrequency = 0;
+    }
+
+    @Override
+    public void hit(int frame) {
+        int frequency = frequencies.getList(frame);
+        int nextFrequency = Math.min(frequency + 1, MAX_FREQUENCY - 1);
+        frequencies.moveToLast(nextFrequency, frame);
+        if (frequency == minFrequency && frequencies.isEmpty(frequency)) {
+            minFrequency = nextFrequency;
+        }
+    }
+
+    @Override
+    public int selectVictim(Page incoming, int pinnedFrame) {
+        while (frequencies.isEmpty(minFrequency)) {
+            minFrequency++;
+        }
+        // The pinned frame may be the only one in the lowest list, in which case the victim is in a higher list
+        int frequency = minFrequency;
+        int frame = frequencies.removeFirstExcept(frequency, pinnedFrame);
+        while (frame == FrameLists.NONE) {
+            frequency++;
+            frame = frequencies.removeFirstExcept(frequency, pinnedFrame);
+        }
+        return frame;
+    }
+
+    @Override
+    public void free(int frame) {
+        frequencies.remove(frame);
+    }
+
+    @Override
+    public String name() {
+        return "LFU";
+    }
+
+}
@@ -0,0 +1,41 @@
+package Memory;
+
+public class LRUPolicy extends PageReplacementPolicy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int RECENCY = 0;
+
+    // Least recently used frame first
+    private final FrameLists recency;
+
+    public LRUPolicy(int numFrames) {
+        recency = new FrameLists(numFrames, 1);
+    }
+
+    @Override
+    public void admit(int frame, Page page) {
+        recency.addLast(RECENCY, frame);
+    }
+
+    @Override
+    public void hit(int frame) {
+        recency.moveToLast(RECENCY, frame);
+    }
+
+    @Override
+    public int selectVictim(Page incoming, int pinnedFrame) {
+        return recency.removeFirstExcept(RECENCY, pinnedFrame);
+    }
+
+    @Override
+    public void free(int frame) {
+        recency.remove(frame);
+    }
+
+    @Override
+    public String name() {
+        return "LRU";
+    }
+
+}
@@ -1,29 +1,70 @@
 package Memory;
 
+import Tracing.TraceEvent;
+import Tracing.TraceRecorder;
+
+import java.io.Serializable;
 import java.util.*;
 
-public class MainMemory {
+public class MainMemory implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static MainMemory instance;
 
-    private static final int CAPACITY_IN_MB = 1024;
-    private static final int PAGE_SIZE_IN_MB = 2;
-    private static final int MAX_PHYSICAL_ADDRESS = 1024 * 1024 * CAPACITY_IN_MB - 1;
+    private static final int INITIAL_PIDS = 64;
+
+    private static int capacityInMB = 1024;
+    private static int pageSizeInMB = 2;
+    private static boolean demandPaging = false;
+    private static PageReplacement pageReplacement = PageReplacement.FIFO;
+
+    private final FrameAllocator frames;
+    private final PageReplacementPolicy replacementPolicy;
 
-    private final List<Frame> frames;
-    private final Queue<Integer> usedFrames;
-    private final Queue<Integer> freeFrameList;
+    // Each page required by a read or write counts as an access
+    private long accesses = 0;
+    private long pageFaults = 0;
+    // Faults on pages which had been swapped out, rather than touched for the first time
+    private long swapIns = 0;
+    private long swapOuts = 0;
+
+    // Page faults and resident pages of each process, indexed by pid and reset when a process is given memory
+    // A page shared between processes after a FORK is resident for each of them
+    private int[] processFaults;
+    private int[] processResidentPages;
+    private int[] processPeakResidentPages;
 
     private MainMemory() {
-        int numFrames = CAPACITY_IN_MB / PAGE_SIZE_IN_MB;
-        frames = new ArrayList<>();
-        usedFrames = new LinkedList<>();
-        freeFrameList = new LinkedList<>();
-        for (int i = 0 ; i < numFrames ; i++) {
-            int startAddress = i * Page.getSizeBytes();
-            frames.add(new Frame(startAddress));
-            freeFrameList.add(i);
+        int numFrames = capacityInMB / pageSizeInMB;
+        frames = new FrameAllocator(numFrames);
+        replacementPolicy = pageReplacement.create(numFrames);
+        processFaults = new int[INITIAL_PIDS];
+        processResidentPages = new int[INITIAL_PIDS];
+        processPeakResidentPages = new int[INITIAL_PIDS];
+    }
+
+    // Must be called before the first call to getInstance()
+    public static void configure(int capacityInMB, int pageSizeInMB, boolean demandPaging,
+                                 PageReplacement pageReplacement) {
+        if (instance != null) {
+            throw new IllegalStateException("MainMemory has already been created");
+        }
+        if (capacityInMB % pageSizeInMB != 0) {
+            throw new IllegalArgumentException("Memory capacity must be a multiple of the page size");
+        }
+        // Both pages of a word straddling a page break must be resident at once
+        if (capacityInMB / pageSizeInMB < 2) {
+            throw new IllegalArgumentException("Memory capacity must be at least two pages");
         }
+        MainMemory.capacityInMB = capacityInMB;
+        MainMemory.pageSizeInMB = pageSizeInMB;
+        MainMemory.demandPaging = demandPaging;
+        MainMemory.pageReplacement = pageReplacement;
+    }
+
+    static int getPageSizeInMB() {
+        return pageSizeInMB;
     }
 
     public static MainMemory getInstance() {
@@ -33,108 +74,206 @@ public class MainMemory {
         return instance;
     }
 
-    public synchronized List<Page> requestMemory(int requestSizeMB) {
+    // Replaces the instance with one read from a checkpoint, configure() must be called first with the
+    // capacity and page size the checkpointed memory was created with
+    public static void restore(MainMemory mainMemory) {
+        instance = mainMemory;
+    }
+
+    // Returns the page table of a new process
+    // With demand paging, no page has a frame until it is first touched. Otherwise, pages are given free frames
+    // right away while there are any, and any pages left over start out in VirtualMemory
+    public synchronized List<Page> requestMemory(int pid, int requestSizeMB) {
 
-        int requestOverPageSize = requestSizeMB / PAGE_SIZE_IN_MB;
-        int remainder = requestSizeMB % PAGE_SIZE_IN_MB;
+        resetProcess(pid);
+        int requestOverPageSize = requestSizeMB / pageSizeInMB;
+        int remainder = requestSizeMB % pageSizeInMB;
         int pagesRequired = remainder > 0 ? requestOverPageSize + 1 : requestOverPageSize;
-        int framesAvailable = freeFrameList.size();
-        List<Page> pages = new ArrayList<>();
-
-        // Allocate available frames
-        if (framesAvailable > 0) {
-            for (int i = 0 ; i < framesAvailable ; i++) {
-                int frameNumber = freeFrameList.remove();
-                int startAddress = i * Page.getSizeBytes();
-                Page page = new Page(startAddress, frameNumber);
-                Frame frame = frames.get(frameNumber);
-                frame.setPage(page);
-                pages.add(page);
-                usedFrames.add(frameNumber);
-            }
-        }
+        List<Page> pages = new ArrayList<>(pagesRequired);
 
-        // If not enough available frames, additional Pages created in VirtualMemory
-        if (pagesRequired - framesAvailable > 0) {
-            for (int i = 0 ; i < pagesRequired - framesAvailable ; i++) {
-                int startAddress = i * Page.getSizeBytes();
-                Page page = new Page(startAddress);
-                VirtualMemory.getInstance().storePage(page);
-                pages.add(page);
+        for (int i = 0 ; i < pagesRequired ; i++) {
+            int startAddress = i * Page.getSizeBytes();
+            Page page = new Page(startAddress, pid);
+            if (!demandPaging) {
+                if (frames.hasFreeFrame()) {
+                    swapIn(page);
+                } else {
+                    VirtualMemory.getInstance().storePage(page);
+                }
             }
+            pages.add(page);
         }
 
         return pages;
     }
 
-    public synchronized void releaseMemory(List<Page> pages) {
+    // Gives a child process the page table of its parent, each page is shared until either process writes to it
+    public synchronized Page[] shareMemory(int pid, Page[] pageTable) {
+        resetProcess(pid);
+        for (Page page : pageTable) {
+            page.share(pid);
+            if (page.isInMemory()) {
+                addResidentPages(pid, 1);
+            }
+        }
+        return Arrays.copyOf(pageTable, pageTable.length);
+    }
+
+    // A page shared with other processes is only freed once the last of them releases it
+    // The page faults and peak resident pages of the process are kept until its pid is given memory again
+    public synchronized void releaseMemory(int pid, List<Page> pages) {
         for (Page page : pages) {
+            if (page.isInMemory()) {
+                addResidentPages(pid, -1);
+            }
+            if (page.release(pid) > 0) {
+                continue;
+            }
             if (page.isInMemory()) {
                 int frameNumber = page.getFrameNumber();
-                Frame frame = frames.get(frameNumber);
-                frame.removePage();
-                usedFrames.remove(frameNumber);
-                freeFrameList.add(frameNumber);
+                frames.free(frameNumber);
+                replacementPolicy.free(frameNumber);
             } else {
+                replacementPolicy.forget(page);
                 VirtualMemory.getInstance().removePage(page);
             }
         }
     }
 
-    public synchronized Word read(Page page, int offset) {
-        requirePage(page);
-        int frameNumber = page.getFrameNumber();
-        Frame frame = frames.get(frameNumber);
-        int physicalAddress = frame.getStartAddress() + offset;
+    public synchronized Word read(int pid, Page page, int offset) {
+        requirePage(pid, page, Page.NO_FRAME);
+        long physicalAddress = FrameAllocator.getStartAddress(page.getFrameNumber()) + offset;
         return new Word(physicalAddress);
     }
 
     // Since each memory address references a byte, and we want to retrieve a word
     // consisting of multiple bytes, we need to handle the case where we want a word
     // that straddles two pages
-    public synchronized Word readAcrossPageBreak(Page page1, int offset, Page page2) {
-        requirePage(page1);
-        requirePage(page2);
-        int frameNumber1 = page1.getFrameNumber();
-        int frameNumber2 = page2.getFrameNumber();
-        Frame frame1 = frames.get(frameNumber1);
-        Frame frame2 = frames.get(frameNumber2);
-        int physicalAddress1 = frame1.getStartAddress() + offset;
+    // The frame of the first page is pinned while the second page is required, so it can't be chosen as the victim
+    public synchronized Word readAcrossPageBreak(int pid, Page page1, int offset, Page page2) {
+        requirePage(pid, page1, Page.NO_FRAME);
+        requirePage(pid, page2, page1.getFrameNumber());
+        long physicalAddress1 = FrameAllocator.getStartAddress(page1.getFrameNumber()) + offset;
         int sizeFirstChunk = Page.getSizeBytes() - offset;
-        int physicalAddress2 = frame2.getStartAddress();
+        long physicalAddress2 = FrameAllocator.getStartAddress(page2.getFrameNumber());
         return new Word(physicalAddress1, sizeFirstChunk, physicalAddress2);
     }
 
-    private void requirePage(Page page) {
-        if (!page.isInMemory()) {
-            // Page fault
-            // First check if free frame in memory
-            if (freeFrameList.isEmpty()) {
-                // Swap out victim page
-                Page victim = swapOut();
-                victim.swapOut();
-                VirtualMemory.getInstance().storePage(victim);
+    // Returns the page written to, which is a private copy of the page if it was shared with another process
+    // The caller must replace the page in its page table with the returned page
+    public synchronized Page write(int pid, Page page) {
+        return write(pid, page, Page.NO_FRAME);
+    }
+
+    // Writes a word straddling two pages, replacing both pages in the page table with the pages written to
+    // The frame of the first page is pinned while the second page is written, so it can't be chosen as the victim
+    public synchronized void writeAcrossPageBreak(int pid, Page[] pageTable, int pageNumber) {
+        Page page1 = write(pid, pageTable[pageNumber], Page.NO_FRAME);
+        pageTable[pageNumber] = page1;
+        pageTable[pageNumber + 1] = write(pid, pageTable[pageNumber + 1], page1.getFrameNumber());
+    }
+
+    private Page write(int pid, Page page, int pinnedFrame) {
+        requirePage(pid, page, pinnedFrame);
+        if (!page.isShared()) {
+            return page;
+        }
+        page.release(pid);
+        addResidentPages(pid, -1);
+        Page copy = new Page(page.getStartAddress(), pid);
+        loadPage(pid, copy, pinnedFrame);
+        TraceRecorder.record(TraceEvent.PAGE_COPY, pid, copy.getFrameNumber());
+        return copy;
+    }
+
+    private void requirePage(int pid, Page page, int pinnedFrame) {
+        accesses++;
+        if (page.isInMemory()) {
+            replacementPolicy.hit(page.getFrameNumber());
+        } else {
+            // Page fault, a page touched for the first time with demand paging isn't in VirtualMemory yet
+            pageFaults++;
+            processFaults[pid]++;
+            loadPage(pid, page, pinnedFrame);
+            if (VirtualMemory.getInstance().removePage(page)) {
+                swapIns++;
             }
-            // Swap in requested page
-            swapIn(page);
-            VirtualMemory.getInstance().removePage(page);
+            TraceRecorder.record(TraceEvent.PAGE_FAULT, pid, page.getFrameNumber());
         }
     }
 
+    private void loadPage(int pid, Page page, int pinnedFrame) {
+        // First check if free frame in memory
+        if (!frames.hasFreeFrame()) {
+            // Swap out victim page
+            Page victim = swapOut(page, pinnedFrame);
+            TraceRecorder.record(TraceEvent.PAGE_EVICT, pid, victim.getFrameNumber());
+            victim.swapOut();
+            for (int i = 0 ; i < victim.getNumOwners() ; i++) {
+                addResidentPages(victim.getOwner(i), -1);
+            }
+            VirtualMemory.getInstance().storePage(victim);
+            swapOuts++;
+        }
+        // Swap in requested page
+        swapIn(page);
+    }
+
     private void swapIn(Page page) {
-        int frameNumber = freeFrameList.remove();
-        Frame frame = frames.get(frameNumber);
+        int frameNumber = frames.allocate(page);
         page.setFrameNumber(frameNumber);
-        frame.setPage(page);
+        replacementPolicy.admit(frameNumber, page);
+        for (int i = 0 ; i < page.getNumOwners() ; i++) {
+            addResidentPages(page.getOwner(i), 1);
+        }
+    }
+
+    public synchronized int getPageFaults(int pid) {
+        return pid < processFaults.length ? processFaults[pid] : 0;
+    }
+
+    public synchronized int getResidentPages(int pid) {
+        return pid < processResidentPages.length ? processResidentPages[pid] : 0;
+    }
+
+    public synchronized int getPeakResidentPages(int pid) {
+        return pid < processPeakResidentPages.length ? processPeakResidentPages[pid] : 0;
+    }
+
+    private void resetProcess(int pid) {
+        if (pid >= processFaults.length) {
+            int capacity = Math.max(pid + 1, processFaults.length * 2);
+            processFaults = Arrays.copyOf(processFaults, capacity);
+            processResidentPages = Arrays.copyOf(processResidentPages, capacity);
+            processPeakResidentPages = Arrays.copyOf(processPeakResidentPages, capacity);
+        }
+        processFaults[pid] = 0;
+        processResidentPages[pid] = 0;
+        processPeakResidentPages[pid] = 0;
+    }
+
+    private void addResidentPages(int pid, int pages) {
+        processResidentPages[pid] += pages;
+        processPeakResidentPages[pid] = Math.max(processPeakResidentPages[pid], processResidentPages[pid]);
+    }
+
+    public synchronized String getStatistics() {
+        return (demandPaging ? "Demand Paging" : "Eager Allocation") + ", " + replacementPolicy.name() + " Replacement"
+                + "\n\tFrames Used: " + (frames.getNumFrames() - frames.getFreeCount()) + " / " + frames.getNumFrames()
+                + "\n\tPage Accesses: " + accesses
+                + "\n\tPage Faults: " + pageFaults + " (" + formatPercentage(pageFaults) + " of accesses)"
+                + "\n\tHit Ratio: " + formatPercentage(accesses - pageFaults)
+                + "\n\tSwap-Ins: " + swapIns
+                + "\n\tSwap-Outs: " + swapOuts;
+    }
+
+    private String formatPercentage(long count) {
+        return accesses == 0 ? "0%" : String.format("%.2f%%", 100.0 * count / accesses);
     }
 
-    // Uses FIFO algorithm to select victim page
-    private Page swapOut() {
-        int freedFrameNumber = usedFrames.remove();
-        Frame freedFrame = frames.get(freedFrameNumber);
-        Page victim = freedFrame.removePage();
-        freeFrameList.add(freedFrameNumber);
-        return victim;
+    // The victim page is selected by the replacement policy
+    private Page swapOut(Page incoming, int pinnedFrame) {
+        return frames.free(replacementPolicy.selectVictim(incoming, pinnedFrame));
     }
 
 }
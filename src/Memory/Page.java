@@ -1,31 +1,39 @@
 package Memory;
 
-public class Page {
+import java.io.Serializable;
+import java.util.Arrays;
+
+public class Page implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int NO_FRAME = -1;
 
     private final int startAddress;
-    private Integer frameNumber;
+    private int frameNumber;
     private boolean inMemory;
+    // Pids of the processes whose page tables hold this page, more than one after a FORK until written to
+    // Owners are only tracked by the MainMemory, while holding its lock
+    private int[] owners;
+    private int numOwners;
 
-    Page(int startAddress) {
+    Page(int startAddress, int owner) {
         this.startAddress = startAddress;
-        this.frameNumber = null;
+        this.frameNumber = NO_FRAME;
         this.inMemory = false;
-    }
-
-    Page(int startAddress, int frameNumber) {
-        this.startAddress = startAddress;
-        this.frameNumber = frameNumber;
-        this.inMemory = true;
+        owners = new int[] {owner};
+        numOwners = 1;
     }
 
     public static int getSizeBytes() {
-        return 1024 * 1024 * Frame.SIZE_IN_MB;
+        return 1024 * 1024 * MainMemory.getPageSizeInMB();
     }
 
     public int getStartAddress() {
         return startAddress;
     }
 
+    // NO_FRAME if the page isn't in memory
     public int getFrameNumber() {
         return frameNumber;
     }
@@ -40,8 +48,38 @@ public class Page {
     }
 
     public void swapOut() {
-        this.frameNumber = null;
+        this.frameNumber = NO_FRAME;
         this.inMemory = false;
     }
 
+    boolean isShared() {
+        return numOwners > 1;
+    }
+
+    int getNumOwners() {
+        return numOwners;
+    }
+
+    int getOwner(int index) {
+        return owners[index];
+    }
+
+    void share(int pid) {
+        if (numOwners == owners.length) {
+            owners = Arrays.copyOf(owners, numOwners * 2);
+        }
+        owners[numOwners++] = pid;
+    }
+
+    // Returns the number of processes still holding the page
+    int release(int pid) {
+        for (int i = 0 ; i < numOwners ; i++) {
+            if (owners[i] == pid) {
+                owners[i] = owners[--numOwners];
+                break;
+            }
+        }
+        return numOwners;
+    }
+
 }
@@ -0,0 +1,30 @@
+package Memory;
+
+// Used to select the PageReplacementPolicy of the MainMemory
+public enum PageReplacement {
+    // Evicts the page which has been resident longest, however often it is used
+    FIFO,
+    // Evicts the page which has gone longest without being accessed
+    LRU,
+    // Second chance, approximates LRU by passing over pages accessed since the clock hand last passed them
+    CLOCK,
+    // Evicts the page accessed least often while resident, the least recently used of those on a tie
+    LFU,
+    // Adaptive Replacement Cache, balances recency against frequency based on which recently evicted pages return
+    ARC;
+
+    PageReplacementPolicy create(int numFrames) {
+        switch (this) {
+            case LRU:
+                return new LRUPolicy(numFrames);
+            case CLOCK:
+                return new ClockPolicy(numFrames);
+            case LFU:
+                return new LFUPolicy(numFrames);
+            case ARC:
+                return new ARCPolicy(numFrames);
+            default:
+                return new FIFOPolicy(numFrames);
+        }
+    }
+}
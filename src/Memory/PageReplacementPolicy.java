@@ -0,0 +1,30 @@
+package Memory;
+
+import java.io.Serializable;
+
+// Decides which resident page is swapped out when a page fault finds every frame in use
+// Pages are tracked by the number of the frame holding them, and every call is made by MainMemory holding its lock
+public abstract class PageReplacementPolicy implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // A page has just been placed in the frame, either when it was faulted in or when its process was created
+    public abstract void admit(int frame, Page page);
+
+    // The page in the frame has been accessed while resident
+    public abstract void hit(int frame);
+
+    // Only called while every frame is in use. Stops tracking the frame of the victim and returns it
+    // The incoming page is the page which faulted, which isn't resident. The pinned frame, unless it is
+    // Page.NO_FRAME, holds a page which must stay resident, and at least one other frame is in use
+    public abstract int selectVictim(Page incoming, int pinnedFrame);
+
+    // The page in the frame has been freed by its last process
+    public abstract void free(int frame);
+
+    // A page which isn't resident has been freed by its last process
+    public void forget(Page page) {}
+
+    public abstract String name();
+
+}
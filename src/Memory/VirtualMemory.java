@@ -1,9 +1,12 @@
 package Memory;
 
+import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 
-public class VirtualMemory {
+public class VirtualMemory implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static VirtualMemory instance;
 
@@ -20,12 +23,18 @@ public class VirtualMemory {
         return instance;
     }
 
+    // Replaces the instance with one read from a checkpoint
+    public static void restore(VirtualMemory virtualMemory) {
+        instance = virtualMemory;
+    }
+
     public void storePage(Page page) {
         pages.add(page);
     }
 
-    public void removePage(Page page) {
-        pages.remove(page);
+    // Returns whether the page had been stored
+    public boolean removePage(Page page) {
+        return pages.remove(page);
     }
 
 }
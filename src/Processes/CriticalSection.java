@@ -0,0 +1,79 @@
+package Processes;
+
+import java.io.Serializable;
+
+/* Describes the lock guarding a critical section, as declared by the line which starts the section:
+ *     CRITICAL                  a mutex named after the template
+ *     CRITICAL name             a mutex shared by every critical section with that name
+ *     CRITICAL name permits     a counting semaphore letting up to permits processes in at once
+ *     CRITICAL name SHARED      the read side of a reader-writer lock
+ *     CRITICAL name EXCLUSIVE   the write side of a reader-writer lock
+ * Every declaration of the same name must describe the same kind of lock. */
+
+public class CriticalSection implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String SHARED = "SHARED";
+    private static final String EXCLUSIVE = "EXCLUSIVE";
+
+    private final String name;
+    private final LockType type;
+    private final int permits;
+    private final boolean shared;
+
+    private CriticalSection(String name, LockType type, int permits, boolean shared) {
+        this.name = name;
+        this.type = type;
+        this.permits = permits;
+        this.shared = shared;
+    }
+
+    // contents is the split line starting the critical section
+    static CriticalSection read(String templateName, String[] contents) throws MalformedTemplateException {
+        if (contents.length == 1) {
+            return new CriticalSection(templateName, LockType.MUTEX, 1, false);
+        } else if (contents.length == 2) {
+            return new CriticalSection(contents[1], LockType.MUTEX, 1, false);
+        } else if (contents.length == 3) {
+            if (SHARED.equals(contents[2]) || EXCLUSIVE.equals(contents[2])) {
+                return new CriticalSection(contents[1], LockType.READ_WRITE, 1, SHARED.equals(contents[2]));
+            }
+            try {
+                int permits = Integer.parseInt(contents[2]);
+                if (permits < 1) {
+                    throw new MalformedTemplateException("CS permits must be positive");
+                }
+                return new CriticalSection(contents[1], LockType.SEMAPHORE, permits, false);
+            } catch (NumberFormatException e) {
+                throw new MalformedTemplateException("CS mode not SHARED, EXCLUSIVE or an integer");
+            }
+        } else {
+            throw new MalformedTemplateException("Wrong number of arguments");
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LockType getType() {
+        return type;
+    }
+
+    // Only used by LockType.SEMAPHORE
+    public int getPermits() {
+        return permits;
+    }
+
+    // Only used by LockType.READ_WRITE
+    public boolean isShared() {
+        return shared;
+    }
+
+    // True if both describe the same lock, as the two sides of a reader-writer lock do
+    boolean isCompatibleWith(CriticalSection other) {
+        return type == other.type && permits == other.permits;
+    }
+
+}
@@ -0,0 +1,6 @@
+package Processes;
+
+// Kind of lock guarding a critical section
+public enum LockType {
+    MUTEX, SEMAPHORE, READ_WRITE
+}
@@ -2,5 +2,7 @@ package Processes;
 
 // Indicates that a template file is not properly formatted
 public class MalformedTemplateException extends Exception {
+    private static final long serialVersionUID = 1L;
+
     MalformedTemplateException(String str) { super("MalformedTemplateException: " + str); }
 }
@@ -2,95 +2,93 @@ package Processes;
 
 import Communication.*;
 import Control.OperatingSystem;
+import Control.RandomSource;
 import Control.ResourceManager;
 import Memory.Page;
 import Memory.Word;
-import Processor.Processor;
 
+import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class PCB implements Comparable<PCB> {
+public class PCB implements Comparable<PCB>, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static final int FORK_RANDOM_BOUND = 4;
     private static final int RESOURCE_REQUEST_RANDOM_BOUND = 8;
 
-    private final Processor.CoreId coreId;
     private final IPCStandard ipcStandard;
 
-    private long startTime = 0;
-    private long elapsedTime = 0;
-    private long currentWaitStartTime = 0;
-    private long waitingTime = 0;
-
     private final int pid;
     private final int parent;
-    private final Set<Integer> children;
+    // Hot fields: state, priorities, core, current operation set, timings and resources
+    // Replaced by a block of its own when the process exits, since the pid may then be reused
+    private volatile ProcessStore.Block block;
+
+    // Cold fields below are only allocated once they are needed
+    // Created by the first FORK, children remove themselves when they exit, possibly from another thread
+    private volatile Set<Integer> children;
 
     // Only used if ipcStandard is IPCStandard.ORDINARY_PIPE
     private final OrdinaryPipe pipeFromParent;
-    private final Map<Integer,OrdinaryPipe> pipesToChildren;
+    private volatile Map<Integer,OrdinaryPipe> pipesToChildren;
 
     private final int memoryRequiredBytes;
-    private final List<Page> pageTable;
-    private final Register register;
-    private Integer lastPageAccessed;
-
-    private final int[] maxResources;
-    private final int[] currentResources;
+    private final Page[] pageTable;
+    // Created by the first memory access or message received
+    private Register register;
+    // -1 until the first memory access
+    private int lastPageAccessed;
 
     private final Template template;
     private final Process process;
-    private final Priority priority;
 
-    private State state;
-    private Process.Section currentSection;
-    private Process.OperationSet currentOpSet;
-    private Operation lastCompletedOperation;
+    // The critical section this process is waiting on or holding, if any
+    private CriticalSection criticalSection;
     private boolean criticalSecured;
 
     // For a process created at startup
     public PCB(Template template, int pid, IPCStandard ipcStandard) {
-        this(template, new Process(template), pid, OperatingSystem.KERNEL_ID, ipcStandard);
+        this(template, new Process(template), null, pid, OperatingSystem.KERNEL_ID, ipcStandard);
     }
 
-    // For a process created by a FORK
-    public PCB(Template template, Process process, int pid, int parent, IPCStandard ipcStandard) {
-        this.state = State.NEW;
-
+    // For a process created by a FORK, which shares the pages of its parent until either of them writes to a page
+    // A process created at startup has no parent pages, and is given memory of its own
+    public PCB(Template template, Process process, Page[] parentPageTable, int pid, int parent,
+               IPCStandard ipcStandard) {
         this.ipcStandard = ipcStandard;
         pipeFromParent = ipcStandard == IPCStandard.ORDINARY_PIPE
                 ? PipeManager.getInstance().createPipe(parent, pid)
                 : null;
-        pipesToChildren = ipcStandard == IPCStandard.ORDINARY_PIPE
-                ? new HashMap<>()
-                : null;
-
-        // Equal chance of being assigned either processor core
-        // Process will always be sent to same core when requesting CPU
-        Random random = new Random();
-        int coreId = random.nextInt(2);
-        if (coreId == 0) {
-            this.coreId = Processor.CoreId.CORE1;
-        } else {
-            this.coreId = Processor.CoreId.CORE2;
-        }
 
         this.pid = pid;
         this.parent = parent;
-        this.children = new HashSet<>();
+        block = OperatingSystem.getInstance().getProcessStore().claim(pid);
+
+        // Equal chance of being assigned each processor core
+        // Process will always be sent to same core when requesting CPU
+        RandomSource random = RandomSource.getInstance();
+        block.setCoreId(pid, random.nextInt(OperatingSystem.getInstance().getNumCores()));
+
+        // Reported once the pid is set, so the transition can be attributed to the process
+        changeState(State.NEW);
 
         int memoryRequiredMB = template.memoryRequirements();
         this.memoryRequiredBytes = 1024 * 1024 * memoryRequiredMB;
-        List<Page> pages = OperatingSystem.getInstance().requestMemory(memoryRequiredMB);
-        this.pageTable = new ArrayList<>(pages);
-        this.register = new Register();
-        this.lastPageAccessed = null;
+        if (parentPageTable == null) {
+            List<Page> pages = OperatingSystem.getInstance().requestMemory(pid, memoryRequiredMB);
+            this.pageTable = pages.toArray(new Page[0]);
+        } else {
+            this.pageTable = OperatingSystem.getInstance().shareMemory(pid, parentPageTable);
+        }
+        this.lastPageAccessed = -1;
 
-        maxResources = new int[ResourceManager.NUM_RESOURCE_TYPES];
-        currentResources = new int[ResourceManager.NUM_RESOURCE_TYPES];
+        int[] maxResources = new int[ResourceManager.NUM_RESOURCE_TYPES];
         // Randomly deciding the maximum resources requested by this process
         for (int i = 0 ; i < ResourceManager.NUM_RESOURCE_TYPES ; i++) {
             maxResources[i] = random.nextInt(ResourceManager.NUM_RESOURCES_PER_TYPE / 4);
+            block.setMaxResource(pid, i, maxResources[i]);
         }
         ResourceManager.getInstance().addProcess(pid, maxResources);
 
@@ -100,12 +98,13 @@ public class PCB implements Comparable<PCB> {
         // Equal chance of being assigned each priority
         int priority = random.nextInt(3);
         if (priority == 0) {
-            this.priority = Priority.LOW;
+            block.setPriority(pid, Priority.LOW);
         } else if (priority == 1) {
-            this.priority = Priority.MEDIUM;
+            block.setPriority(pid, Priority.MEDIUM);
         } else {
-            this.priority = Priority.HIGH;
+            block.setPriority(pid, Priority.HIGH);
         }
+        block.setEffectivePriority(pid, block.getPriority(pid));
 
         this.criticalSecured = false;
 
@@ -113,14 +112,16 @@ public class PCB implements Comparable<PCB> {
     }
 
     public void setStartTime(long startTime) {
-        this.startTime = startTime;
-        if (state == State.READY) {
-            this.currentWaitStartTime = startTime;
+        ProcessStore.Block block = this.block;
+        block.setStartTime(pid, startTime);
+        if (block.getState(pid) == State.READY) {
+            block.setWaitStartTime(pid, startTime);
         }
     }
 
     public void setHaltTime(long haltTime) {
-        elapsedTime += haltTime - startTime;
+        ProcessStore.Block block = this.block;
+        block.addElapsedTime(pid, haltTime - block.getStartTime(pid));
     }
 
     public String getTemplateName() {
@@ -128,31 +129,77 @@ public class PCB implements Comparable<PCB> {
     }
 
     public long getTurnaroundTime() {
-        return elapsedTime + System.currentTimeMillis() - startTime;
+        ProcessStore.Block block = this.block;
+        return block.getElapsedTime(pid) + System.currentTimeMillis() - block.getStartTime(pid);
     }
 
     public long getWaitingTime() {
-        return waitingTime;
+        return block.getWaitingTime(pid);
     }
 
-    public Processor.CoreId getCoreId() {
-        return coreId;
+    public int getCoreId() {
+        return block.getCoreId(pid);
+    }
+
+    // Process has been migrated to another core, and will be sent to that core from now on
+    public void setCoreId(int coreId) {
+        block.setCoreId(pid, coreId);
     }
 
     public Priority getPriority() {
-        return priority;
+        return block.getPriority(pid);
+    }
+
+    // Used for scheduling, may differ from getPriority() while holding a critical section
+    public Priority getEffectivePriority() {
+        return block.getEffectivePriority(pid);
+    }
+
+    public void setEffectivePriority(Priority effectivePriority) {
+        block.setEffectivePriority(pid, effectivePriority);
+    }
+
+    public long getCriticalWaitCycles() {
+        return block.getCriticalWaitCycles(pid);
+    }
+
+    // Counted by the MainMemory while the process runs, and kept in the block once it has released its memory
+    public int getPageFaults() {
+        if (block.getState(pid) == State.EXIT) {
+            return block.getPageFaults(pid);
+        }
+        return OperatingSystem.getInstance().getPageFaults(pid);
+    }
+
+    public int getPeakResidentPages() {
+        if (block.getState(pid) == State.EXIT) {
+            return block.getPeakResidentPages(pid);
+        }
+        return OperatingSystem.getInstance().getPeakResidentPages(pid);
+    }
+
+    // Pages shared with a parent or child since a FORK count towards each of them
+    public int getResidentPages() {
+        if (block.getState(pid) == State.EXIT) {
+            return 0;
+        }
+        return OperatingSystem.getInstance().getResidentPages(pid);
     }
 
     public State getState() {
-        return state;
+        return block.getState(pid);
     }
 
-    public void setState(State state) {
-        this.state = state;
+    public synchronized void setState(State state) {
+        // A process terminated by its parent may still be waiting in a ready queue, but must never run again
+        if (block.getState(pid) == State.EXIT) {
+            return;
+        }
+        changeState(state);
         if (state == State.READY) {
-            currentWaitStartTime = System.currentTimeMillis();
+            block.setWaitStartTime(pid, System.currentTimeMillis());
         } else if (state == State.RUN) {
-            waitingTime += (System.currentTimeMillis() - currentWaitStartTime);
+            block.addWaitingTime(pid, System.currentTimeMillis() - block.getWaitStartTime(pid));
         }
     }
 
@@ -160,12 +207,32 @@ public class PCB implements Comparable<PCB> {
         return pid;
     }
 
+    public int getParent() {
+        return parent;
+    }
+
+    // Not synchronized, since a child may exit while its parent is terminating it
+    public void childExited(int child) {
+        Set<Integer> children = this.children;
+        if (children != null) {
+            children.remove(child);
+        }
+        Map<Integer,OrdinaryPipe> pipesToChildren = this.pipesToChildren;
+        if (pipesToChildren != null) {
+            pipesToChildren.remove(child);
+        }
+    }
+
     public synchronized void progressOneCycle() {
-        currentOpSet.progressOneCycle();
+        if (block.getState(pid) == State.EXIT) {
+            return;
+        }
+        block.progressCycles(pid, 1);
 
-        if (currentOpSet.getOperation() == Operation.FORK) {
+        Operation operation = block.getOperation(pid);
+        if (operation == Operation.FORK) {
             fork();
-        } else if (currentOpSet.getOperation() == Operation.CALCULATE) {
+        } else if (operation == Operation.CALCULATE) {
             memoryAccess();
             if (ipcStandard == IPCStandard.MESSAGE_PASSING) {
                 sendMessage();
@@ -177,47 +244,89 @@ public class PCB implements Comparable<PCB> {
         }
 
         // Current set of operations completed
-        if (currentOpSet.getCycles() == 0) {
-            lastCompletedOperation = currentOpSet.getOperation();
-            currentOpSet = currentSection.getOperationSets().poll();
+        if (block.getCycles(pid) == 0) {
+            block.setLastCompletedOperation(pid, operation);
+            loadNextOpSet();
             newOpSet();
         }
     }
 
+    // Used when skipping idle cycles, must not be enough cycles to complete the current I/O burst
+    public synchronized void skipIoCycles(int cycles) {
+        block.progressCycles(pid, cycles);
+    }
+
+    public synchronized int getRemainingIoCycles() {
+        if (block.getOperation(pid) == Operation.IO) {
+            return block.getCycles(pid);
+        }
+        return 0;
+    }
+
+    // Loads the next operation set of the current section, or clears it once the section is complete
+    // Its remaining cycles are counted down in the ProcessStore
+    private void loadNextOpSet() {
+        if (process.hasNextOperationSet()) {
+            block.setOperation(pid, process.getNextOperation(), process.getNextCycles());
+            process.advance();
+        } else {
+            block.setOperation(pid, null, 0);
+        }
+    }
+
     // FORK operation results in a 1/FORK_RANDOM_BOUND chance of a child process being created
     private void fork() {
-        Random random = new Random();
-        if (random.nextInt(FORK_RANDOM_BOUND) == 0) {
-            Process childProcess = new Process(process, currentSection);
-            int childPid = OperatingSystem.getInstance().createChildProcess(template, pid, childProcess, ipcStandard);
+        if (RandomSource.getInstance().nextInt(FORK_RANDOM_BOUND) == 0) {
+            Process childProcess = process.fork();
+            int childPid = OperatingSystem.getInstance().createChildProcess(template, pid, childProcess, pageTable,
+                    ipcStandard);
+            if (children == null) {
+                children = ConcurrentHashMap.newKeySet();
+            }
             children.add(childPid);
             if (ipcStandard == IPCStandard.ORDINARY_PIPE) {
+                if (pipesToChildren == null) {
+                    pipesToChildren = new ConcurrentHashMap<>();
+                }
                 pipesToChildren.put(childPid, PipeManager.getInstance().retrievePipe(childPid));
             }
         }
     }
 
     // Simulates memory access required to perform a calculation
+    // A word received from the parent is stored to memory, any other access reads memory into the register
     private void memoryAccess() {
         int logicalAddress = generateLogicalAddress();
-        Word contents = readFromMemory(logicalAddress);
+        if (register != null && register.getLogicalAddress() == -1 && logicalAddress != -1) {
+            writeToMemory(logicalAddress);
+            setRegister(logicalAddress, register.getContents());
+        } else {
+            Word contents = readFromMemory(logicalAddress);
+            setRegister(logicalAddress, contents);
+        }
+    }
+
+    private void setRegister(int logicalAddress, Word contents) {
+        if (register == null) {
+            register = new Register();
+        }
         register.set(logicalAddress, contents);
     }
 
     // Generates a logical address to be read based on a set of rules
     private int generateLogicalAddress() {
-        Random random = new Random();
+        RandomSource random = RandomSource.getInstance();
         // Check if a previous memory read has been stored
-        if (register.isSet() && lastPageAccessed != null) {
+        if (register != null && lastPageAccessed >= 0) {
             // 50% chance of reading from same logical address as last read
             // 25% chance of reading from same page as last read
-            if (Math.random() < 0.5) {
+            if (random.nextDouble() < 0.5) {
                 return register.getLogicalAddress();
-            } else if (Math.random() < 0.5) {
+            } else if (random.nextDouble() < 0.5) {
                 // Check whether using the last page
-                if (lastPageAccessed < pageTable.size() - 1) {
+                if (lastPageAccessed < pageTable.length - 1) {
                     return random.nextInt(Page.getSizeBytes())
-                            + pageTable.get(lastPageAccessed).getStartAddress();
+                            + pageTable[lastPageAccessed].getStartAddress();
                 } else {
                     // If using the last page, make sure address is valid
                     int bytesUsedInFinalPage;
@@ -227,7 +336,7 @@ public class PCB implements Comparable<PCB> {
                         bytesUsedInFinalPage = memoryRequiredBytes % Page.getSizeBytes();
                     }
                     return random.nextInt(bytesUsedInFinalPage - Word.WORD_SIZE_IN_BYTES + 1)
-                            + pageTable.get(lastPageAccessed).getStartAddress();
+                            + pageTable[lastPageAccessed].getStartAddress();
                 }
             }
         }
@@ -236,7 +345,7 @@ public class PCB implements Comparable<PCB> {
 
     private Word readFromMemory(int logicalAddress) {
         // Check if contents of logical address already stored in register
-        if (register.isSet() && register.getLogicalAddress() == logicalAddress) {
+        if (register != null && register.getLogicalAddress() == logicalAddress) {
             return register.getContents();
         } else {
             int pageNumber = logicalAddress / Page.getSizeBytes();
@@ -245,20 +354,36 @@ public class PCB implements Comparable<PCB> {
 
             // Check if desired word straddles two pages
             if (offset > Page.getSizeBytes() - Word.WORD_SIZE_IN_BYTES) {
-                Page page1 = pageTable.get(pageNumber);
-                Page page2 = pageTable.get(pageNumber + 1);
-                contents = OperatingSystem.getInstance().readAcrossPageBreak(page1, offset, page2);
+                Page page1 = pageTable[pageNumber];
+                Page page2 = pageTable[pageNumber + 1];
+                contents = OperatingSystem.getInstance().readAcrossPageBreak(pid, page1, offset, page2);
             } else {
-                Page page = pageTable.get(pageNumber);
-                contents = OperatingSystem.getInstance().read(page, offset);
+                Page page = pageTable[pageNumber];
+                contents = OperatingSystem.getInstance().read(pid, page, offset);
             }
             lastPageAccessed = pageNumber;
             return contents;
         }
     }
 
+    // Writing to a page shared with the parent or a child replaces it with a private copy
+    private void writeToMemory(int logicalAddress) {
+        int pageNumber = logicalAddress / Page.getSizeBytes();
+        int offset = logicalAddress % Page.getSizeBytes();
+        // Check if the word straddles two pages
+        if (offset > Page.getSizeBytes() - Word.WORD_SIZE_IN_BYTES) {
+            OperatingSystem.getInstance().writeAcrossPageBreak(pid, pageTable, pageNumber);
+        } else {
+            pageTable[pageNumber] = OperatingSystem.getInstance().write(pid, pageTable[pageNumber]);
+        }
+        lastPageAccessed = pageNumber;
+    }
+
     // Send current value of Register to all child processes
     private void sendMessage() {
+        if (children == null) {
+            return;
+        }
         for (int child : children) {
             MessagePasser.getInstance().send(child, new Message(pid, register.getContents()));
         }
@@ -270,14 +395,17 @@ public class PCB implements Comparable<PCB> {
         if (message != null && message.getSender() == parent) {
             // Set register to the contents of the message
             // logicalAddress of -1 indicates source of register contents was not one of this process's pages
-            register.set(-1, message.getContents());
+            setRegister(-1, message.getContents());
         }
     }
 
     // Send current value of Register to all child processes
     private void writeToPipes() {
-        for (int child : children) {
-            pipesToChildren.get(child).write(pid, register.getContents());
+        if (pipesToChildren == null) {
+            return;
+        }
+        for (OrdinaryPipe pipe : pipesToChildren.values()) {
+            pipe.write(pid, register.getContents());
         }
     }
 
@@ -288,7 +416,7 @@ public class PCB implements Comparable<PCB> {
             if (word != null) {
                 // Set register to the word retrieved from the Pipe
                 // logicalAddress of -1 indicates source of register contents was not one of this process's pages
-                register.set(-1, word);
+                setRegister(-1, word);
             }
         }
     }
@@ -296,20 +424,19 @@ public class PCB implements Comparable<PCB> {
     // Invoked every time we switch to a new set of operations
     private void newOpSet() {
         // Process just created or section just completed
-        if (currentOpSet == null) {
-            currentSection = process.nextSection();
+        if (block.getOperation(pid) == null) {
             // Process completed
-            if (currentSection == null) {
+            if (!process.nextSection()) {
                 terminateProcess();
                 // Entering new section
             } else {
-                currentOpSet = currentSection.getOperationSets().poll();
-                // Any section switch means entering or leaving the critical section
-                if (currentSection.isCritical()) {
+                loadNextOpSet();
+                // Any section switch means leaving the current critical section, entering a new one, or both
+                releaseCriticalSection();
+                if (process.isCritical()) {
                     releaseIO();
                     requestCriticalSection();
                 } else {
-                    releaseCriticalSection();
                     conditionalRequestResource();
                 }
             }
@@ -321,73 +448,111 @@ public class PCB implements Comparable<PCB> {
     }
 
     public synchronized void terminateProcess() {
-        state = State.EXIT;
+        // A process may be terminated by its parent after it already exited on its own
+        if (block.getState(pid) == State.EXIT) {
+            return;
+        }
+        changeState(State.EXIT);
         ResourceManager.getInstance().removeProcess(pid);
-        OperatingSystem.getInstance().removeFromSemaphore(pid, template.index());
+        if (criticalSection != null && !criticalSecured) {
+            OperatingSystem.getInstance().removeFromCriticalSection(pid, criticalSection);
+            criticalSection = null;
+        }
         releaseCriticalSection();
         OperatingSystem.getInstance().releaseIO(pid);
-        OperatingSystem.getInstance().releaseMemory(pageTable);
-        OperatingSystem.getInstance().exit(pid, children);
+        OperatingSystem.getInstance().releaseMemory(pid, Arrays.asList(pageTable));
+        // Kept for the process summary, as the MainMemory resets them when the pid is reused
+        block.setPaging(pid, OperatingSystem.getInstance().getPageFaults(pid),
+                OperatingSystem.getInstance().getPeakResidentPages(pid));
+        // The pid is freed at the cycle boundary after exit(), after which its slot may be claimed by a new process
+        block = block.detach(pid);
+        Set<Integer> children = this.children;
+        OperatingSystem.getInstance().exit(pid, children == null ? Collections.emptySet() : children);
     }
 
     private void releaseIO() {
-        if (lastCompletedOperation == Operation.IO) {
+        if (block.getLastCompletedOperation(pid) == Operation.IO) {
             OperatingSystem.getInstance().releaseIO(pid);
         }
     }
 
     private void requestCriticalSection() {
-        state = State.WAIT;
-        OperatingSystem.getInstance().requestCriticalSection(pid, template.index());
+        criticalSection = process.getCriticalSection();
+        block.setCriticalWaitStartCycle(pid, OperatingSystem.getInstance().getElapsedCycles());
+        // The process may still be under construction, so a lock acquired right away can't wake it up
+        if (OperatingSystem.getInstance().requestCriticalSection(this, criticalSection)) {
+            wakeup();
+        } else {
+            changeState(State.WAIT);
+        }
     }
 
     private void releaseCriticalSection() {
         if (criticalSecured) {
             criticalSecured = false;
-            OperatingSystem.getInstance().releaseCriticalSection(template.index());
+            OperatingSystem.getInstance().releaseCriticalSection(pid, criticalSection);
+            criticalSection = null;
         }
     }
 
+    // Ignored once terminated, since terminating a process admitted to a lock but not yet woken up releases the lock
     public synchronized void wakeup() {
+        if (block.getState(pid) == State.EXIT) {
+            return;
+        }
         criticalSecured = true;
+        block.addCriticalWaitCycles(pid,
+                OperatingSystem.getInstance().getElapsedCycles() - block.getCriticalWaitStartCycle(pid));
         requestResource();
     }
 
     private void conditionalRequestResource() {
+        Operation lastCompletedOperation = block.getLastCompletedOperation(pid);
+        Operation operation = block.getOperation(pid);
         if (lastCompletedOperation == null
                 || (lastCompletedOperation == Operation.IO
-                        && currentOpSet.getOperation() != Operation.IO)
+                        && operation != Operation.IO)
                 || (lastCompletedOperation != Operation.IO
-                        && currentOpSet.getOperation() == Operation.IO)) {
+                        && operation == Operation.IO)) {
             releaseIO();
             requestResource();
         }
     }
 
     private void requestResource() {
-        if (currentOpSet.getOperation() == Operation.CALCULATE
-                || currentOpSet.getOperation() == Operation.FORK) {
+        Operation operation = block.getOperation(pid);
+        if (operation == Operation.CALCULATE
+                || operation == Operation.FORK) {
             // Possibility of needing to acquire or release resources before proceeding
-            int randInt = new Random().nextInt(RESOURCE_REQUEST_RANDOM_BOUND);
+            RandomSource random = RandomSource.getInstance();
+            int randInt = random.nextInt(RESOURCE_REQUEST_RANDOM_BOUND);
             if (randInt == 0) {
                 // Acquire new resources
                 int[] resourceRequest = new int[ResourceManager.NUM_RESOURCE_TYPES];
                 for (int i = 0 ; i < ResourceManager.NUM_RESOURCE_TYPES ; i++) {
-                    resourceRequest[i] = new Random().nextInt(maxResources[i] - currentResources[i] + 1);
+                    resourceRequest[i] = random.nextInt(block.getMaxResource(pid, i) - block.getHeldResource(pid, i) + 1);
+                }
+                if (OperatingSystem.getInstance().requestResources(pid, resourceRequest)) {
+                    necessaryResourcesAcquired(resourceRequest);
+                } else {
+                    changeState(State.WAIT);
                 }
-                OperatingSystem.getInstance().requestResources(pid, resourceRequest);
             } else if (randInt == 1) {
                 // Release existing resources
                 int[] releasing = new int[ResourceManager.NUM_RESOURCE_TYPES];
                 for (int i = 0 ; i < ResourceManager.NUM_RESOURCE_TYPES ; i++) {
-                    releasing[i] = new Random().nextInt(currentResources[i] + 1);
+                    releasing[i] = random.nextInt(block.getHeldResource(pid, i) + 1);
                 }
                 OperatingSystem.getInstance().releaseResources(pid, releasing);
+                for (int i = 0 ; i < ResourceManager.NUM_RESOURCE_TYPES ; i++) {
+                    block.addHeldResource(pid, i, -releasing[i]);
+                }
+                requestCPU();
             } else {
                 requestCPU();
             }
-        } else if (currentOpSet.getOperation() == Operation.IO) {
-            state = State.WAIT;
+        } else if (operation == Operation.IO) {
+            changeState(State.WAIT);
             OperatingSystem.getInstance().requestIO(pid);
         }
     }
@@ -395,47 +560,56 @@ public class PCB implements Comparable<PCB> {
     // Called when done waiting on resources and ready to wait on CPU
     public synchronized void necessaryResourcesAcquired(int[] resourceRequest) {
         for (int i = 0 ; i < ResourceManager.NUM_RESOURCE_TYPES ; i++) {
-            currentResources[i] += resourceRequest[i];
+            block.addHeldResource(pid, i, resourceRequest[i]);
         }
         requestCPU();
     }
 
+    // Called when every resource held by this process was taken back to break a deadlock
+    public synchronized void resourcesPreempted() {
+        block.clearHeldResources(pid);
+    }
+
     private void requestCPU() {
-        state = State.READY;
-        currentWaitStartTime = System.currentTimeMillis();
+        changeState(State.READY);
+        block.setWaitStartTime(pid, System.currentTimeMillis());
         OperatingSystem.getInstance().requestCPU(this);
     }
 
+    // Every state transition goes through here, so that the OperatingSystem can count processes in each state
+    // A terminated process never leaves EXIT
+    private void changeState(State newState) {
+        State oldState = block.getState(pid);
+        if (oldState == State.EXIT) {
+            return;
+        }
+        block.setState(pid, newState);
+        OperatingSystem.getInstance().stateChanged(this, oldState, newState);
+    }
+
     // Compares PCBs by length of CALCULATE bursts for the purpose of the SJFScheduler
     @Override
     public int compareTo(PCB o) {
-        return this.getRemainingCalculateCycles().compareTo(o.getRemainingCalculateCycles());
+        return Integer.compare(this.getRemainingCalculateCycles(), o.getRemainingCalculateCycles());
     }
 
-    private synchronized Integer getRemainingCalculateCycles() {
-        if (currentOpSet != null && Operation.CALCULATE.equals(currentOpSet.getOperation())) {
-            return currentOpSet.getCycles();
+    private synchronized int getRemainingCalculateCycles() {
+        if (block.getOperation(pid) == Operation.CALCULATE) {
+            return block.getCycles(pid);
         }
         return 0;
     }
 
-    private static class Register {
+    // Only created once set
+    private static class Register implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private int logicalAddress;
         private Word contents;
-        private boolean set;
-
-        Register() {
-            set = false;
-        }
 
         public void set(int logicalAddress, Word contents) {
             this.logicalAddress = logicalAddress;
             this.contents = contents;
-            this.set = true;
-        }
-
-        public boolean isSet() {
-            return set;
         }
 
         public int getLogicalAddress() {
@@ -1,86 +1,74 @@
 package Processes;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.io.Serializable;
 
-public class Process {
+// Position of a process in the program compiled from its template
+// The cycle counts are drawn once when the process is created and never modified, since the cycles remaining
+// in the current operation set are counted down by the PCB, so a child shares them with its parent
+public class Process implements Serializable {
 
-    private final Queue<Section> sections;
+    private static final long serialVersionUID = 1L;
+
+    private final Program program;
+    private final int[] cycleCounts;
+    // Next instruction to be loaded
+    private int pc;
+    // Section of the instructions being loaded, -1 until the first section is entered
+    private int section;
 
     Process(Template template) {
-        sections = new LinkedList<>();
-        for (Template.Section tSection : template.getSections()) {
-            Section pSection = new Section(tSection.isCritical());
-            for (Template.OperationSet tOpSet : tSection.getOperationSets()) {
-                OperationSet pOpSet = new OperationSet(tOpSet.getOperation(), tOpSet.generateCycleCount());
-                pSection.getOperationSets().add(pOpSet);
-            }
-            sections.add(pSection);
-        }
+        program = template.getProgram();
+        cycleCounts = program.generateCycleCounts();
+        pc = 0;
+        section = -1;
     }
 
     // Used for creating a child process
     // Instructions start immediately after FORK instruction used to create child
-    Process(Process parent, Section currentSection) {
-        sections = new LinkedList<>();
-        sections.add(currentSection.deepCopy());
-        for (Section section : parent.sections) {
-            sections.add(section.deepCopy());
-        }
+    private Process(Process parent) {
+        program = parent.program;
+        cycleCounts = parent.cycleCounts;
+        pc = parent.pc;
+        section = -1;
     }
 
-    Section nextSection() {
-        return sections.poll();
+    Process fork() {
+        return new Process(this);
     }
 
-    static class Section {
-        private Queue<OperationSet> operationSets;
-        private final boolean critical;
-
-        Section(boolean critical) {
-            this.critical = critical;
-        }
-
-        Queue<OperationSet> getOperationSets() {
-            if (operationSets == null) {
-                operationSets = new LinkedList<>();
-            }
-            return operationSets;
-        }
-
-        boolean isCritical() {
-            return critical;
+    // Enters the section holding the next instruction, returns false once every instruction has been loaded
+    boolean nextSection() {
+        if (pc >= program.length()) {
+            return false;
         }
+        section = program.getSection(pc);
+        return true;
+    }
 
-        Section deepCopy() {
-            Section copy = new Section(critical);
-            Queue<OperationSet> copyOpSets = copy.getOperationSets();
-            for (OperationSet opSet : operationSets) {
-                copyOpSets.add(new OperationSet(opSet.getOperation(), opSet.getCycles()));
-            }
-            return copy;
-        }
+    boolean hasNextOperationSet() {
+        return pc < program.length() && program.getSection(pc) == section;
     }
 
-    static class OperationSet {
-        private final Operation operation;
-        private int cycles;
+    // The next operation set must exist in the current section
+    Operation getNextOperation() {
+        return program.getOperation(pc);
+    }
 
-        OperationSet(Operation operation, int cycles) {
-            this.operation = operation;
-            this.cycles = cycles;
-        }
+    int getNextCycles() {
+        return cycleCounts[pc];
+    }
 
-        Operation getOperation() {
-            return operation;
-        }
+    void advance() {
+        pc++;
+    }
 
-        void progressOneCycle() {
-            cycles--;
-        }
+    boolean isCritical() {
+        return program.getCriticalSection(section) != null;
+    }
 
-        int getCycles() {
-            return cycles;
-        }
+    // Null if the current section is not critical
+    CriticalSection getCriticalSection() {
+        return program.getCriticalSection(section);
     }
+
 }
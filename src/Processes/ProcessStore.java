@@ -0,0 +1,304 @@
+package Processes;
+
+import Control.ResourceManager;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/* Holds the fields of every PCB which are touched every cycle in primitive parallel arrays indexed by pid,
+ * rather than in the PCB objects themselves, so a live process costs about 130 bytes of arrays and a small PCB.
+ * The arrays are split into blocks of BLOCK_SIZE pids, which are only allocated once a pid in their range is used,
+ * and never move once allocated, so a PCB keeps a reference to its block and reads it without any lookup.
+ *
+ * Pids are recycled, but a PCB may still be referenced after its process exited, e.g. by a ready queue it is
+ * skipped in, so an exiting PCB detaches its slot into a block of its own before its pid can be reused.
+ * A thread may have read the block of a PCB just before it was detached, so the pid is only freed at the next
+ * cycle boundary, once every hardware thread has finished the cycle and dropped any block it read.
+ * Fields which were volatile in the PCB are held in atomic arrays, so they are safe to read from any thread
+ * while the pid belongs to the process. */
+public class ProcessStore implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int BLOCK_BITS = 10;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final int INITIAL_BLOCKS = 16;
+
+    // Replaced by a larger copy when full, blocks themselves are never replaced
+    private volatile Block[] blocks;
+
+    public ProcessStore() {
+        blocks = new Block[INITIAL_BLOCKS];
+    }
+
+    // Clears the slot of the pid for a new process, and returns the block holding it
+    synchronized Block claim(int pid) {
+        int blockIndex = pid >>> BLOCK_BITS;
+        if (blockIndex >= blocks.length) {
+            blocks = Arrays.copyOf(blocks, Math.max(blocks.length * 2, blockIndex + 1));
+        }
+        Block block = blocks[blockIndex];
+        if (block == null) {
+            block = new Block(blockIndex << BLOCK_BITS, BLOCK_SIZE);
+            blocks[blockIndex] = block;
+        }
+        block.clear(pid);
+        return block;
+    }
+
+    // Slots for the pids from base up to base + capacity, each field of a slot is indexed by pid - base
+    static class Block implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        static final int NO_OPERATION = -1;
+
+        private static final State[] STATES = State.values();
+        private static final Priority[] PRIORITIES = Priority.values();
+        private static final Operation[] OPERATIONS = Operation.values();
+        private static final int RESOURCE_TYPES = ResourceManager.NUM_RESOURCE_TYPES;
+
+        private final int base;
+
+        // State ordinal, or -1 before the first state is set
+        private final AtomicIntegerArray states;
+        private final AtomicIntegerArray coreIds;
+        private final AtomicIntegerArray effectivePriorities;
+        private final byte[] priorities;
+
+        // Operation ordinals, or NO_OPERATION
+        private final byte[] operations;
+        private final byte[] lastCompletedOperations;
+        // Cycles left in the current operation set
+        private final int[] cycles;
+
+        // Wall-clock times in milliseconds
+        private final long[] startTimes;
+        private final long[] elapsedTimes;
+        private final long[] waitStartTimes;
+        private final long[] waitingTimes;
+        // In cycles
+        private final long[] criticalWaitStartCycles;
+        private final long[] criticalWaitCycles;
+
+        private final int[] pageFaults;
+        private final int[] peakResidentPages;
+
+        // RESOURCE_TYPES entries per slot
+        private final int[] maxResources;
+        private final int[] heldResources;
+
+        private Block(int base, int capacity) {
+            this.base = base;
+            states = new AtomicIntegerArray(capacity);
+            coreIds = new AtomicIntegerArray(capacity);
+            effectivePriorities = new AtomicIntegerArray(capacity);
+            priorities = new byte[capacity];
+            operations = new byte[capacity];
+            lastCompletedOperations = new byte[capacity];
+            cycles = new int[capacity];
+            startTimes = new long[capacity];
+            elapsedTimes = new long[capacity];
+            waitStartTimes = new long[capacity];
+            waitingTimes = new long[capacity];
+            criticalWaitStartCycles = new long[capacity];
+            criticalWaitCycles = new long[capacity];
+            pageFaults = new int[capacity];
+            peakResidentPages = new int[capacity];
+            maxResources = new int[capacity * RESOURCE_TYPES];
+            heldResources = new int[capacity * RESOURCE_TYPES];
+        }
+
+        private void clear(int pid) {
+            int i = pid - base;
+            states.set(i, -1);
+            coreIds.set(i, 0);
+            effectivePriorities.set(i, 0);
+            priorities[i] = 0;
+            operations[i] = NO_OPERATION;
+            lastCompletedOperations[i] = NO_OPERATION;
+            cycles[i] = 0;
+            startTimes[i] = 0;
+            elapsedTimes[i] = 0;
+            waitStartTimes[i] = 0;
+            waitingTimes[i] = 0;
+            criticalWaitStartCycles[i] = 0;
+            criticalWaitCycles[i] = 0;
+            pageFaults[i] = 0;
+            peakResidentPages[i] = 0;
+            Arrays.fill(maxResources, i * RESOURCE_TYPES, (i + 1) * RESOURCE_TYPES, 0);
+            Arrays.fill(heldResources, i * RESOURCE_TYPES, (i + 1) * RESOURCE_TYPES, 0);
+        }
+
+        // Copies the slot of the pid into a block holding only that slot
+        Block detach(int pid) {
+            int i = pid - base;
+            Block detached = new Block(pid, 1);
+            detached.states.set(0, states.get(i));
+            detached.coreIds.set(0, coreIds.get(i));
+            detached.effectivePriorities.set(0, effectivePriorities.get(i));
+            detached.priorities[0] = priorities[i];
+            detached.operations[0] = operations[i];
+            detached.lastCompletedOperations[0] = lastCompletedOperations[i];
+            detached.cycles[0] = cycles[i];
+            detached.startTimes[0] = startTimes[i];
+            detached.elapsedTimes[0] = elapsedTimes[i];
+            detached.waitStartTimes[0] = waitStartTimes[i];
+            detached.waitingTimes[0] = waitingTimes[i];
+            detached.criticalWaitStartCycles[0] = criticalWaitStartCycles[i];
+            detached.criticalWaitCycles[0] = criticalWaitCycles[i];
+            detached.pageFaults[0] = pageFaults[i];
+            detached.peakResidentPages[0] = peakResidentPages[i];
+            System.arraycopy(maxResources, i * RESOURCE_TYPES, detached.maxResources, 0, RESOURCE_TYPES);
+            System.arraycopy(heldResources, i * RESOURCE_TYPES, detached.heldResources, 0, RESOURCE_TYPES);
+            return detached;
+        }
+
+        State getState(int pid) {
+            int ordinal = states.get(pid - base);
+            return ordinal < 0 ? null : STATES[ordinal];
+        }
+
+        void setState(int pid, State state) {
+            states.set(pid - base, state.ordinal());
+        }
+
+        int getCoreId(int pid) {
+            return coreIds.get(pid - base);
+        }
+
+        void setCoreId(int pid, int coreId) {
+            coreIds.set(pid - base, coreId);
+        }
+
+        Priority getPriority(int pid) {
+            return PRIORITIES[priorities[pid - base]];
+        }
+
+        void setPriority(int pid, Priority priority) {
+            priorities[pid - base] = (byte) priority.ordinal();
+        }
+
+        Priority getEffectivePriority(int pid) {
+            return PRIORITIES[effectivePriorities.get(pid - base)];
+        }
+
+        void setEffectivePriority(int pid, Priority priority) {
+            effectivePriorities.set(pid - base, priority.ordinal());
+        }
+
+        // Null if the process has no current operation set
+        Operation getOperation(int pid) {
+            int ordinal = operations[pid - base];
+            return ordinal == NO_OPERATION ? null : OPERATIONS[ordinal];
+        }
+
+        // Null clears the current operation set
+        void setOperation(int pid, Operation operation, int operationCycles) {
+            int i = pid - base;
+            operations[i] = operation == null ? NO_OPERATION : (byte) operation.ordinal();
+            cycles[i] = operationCycles;
+        }
+
+        Operation getLastCompletedOperation(int pid) {
+            int ordinal = lastCompletedOperations[pid - base];
+            return ordinal == NO_OPERATION ? null : OPERATIONS[ordinal];
+        }
+
+        void setLastCompletedOperation(int pid, Operation operation) {
+            lastCompletedOperations[pid - base] = (byte) operation.ordinal();
+        }
+
+        int getCycles(int pid) {
+            return cycles[pid - base];
+        }
+
+        void progressCycles(int pid, int progress) {
+            cycles[pid - base] -= progress;
+        }
+
+        long getStartTime(int pid) {
+            return startTimes[pid - base];
+        }
+
+        void setStartTime(int pid, long startTime) {
+            startTimes[pid - base] = startTime;
+        }
+
+        long getElapsedTime(int pid) {
+            return elapsedTimes[pid - base];
+        }
+
+        void addElapsedTime(int pid, long elapsedTime) {
+            elapsedTimes[pid - base] += elapsedTime;
+        }
+
+        long getWaitStartTime(int pid) {
+            return waitStartTimes[pid - base];
+        }
+
+        void setWaitStartTime(int pid, long waitStartTime) {
+            waitStartTimes[pid - base] = waitStartTime;
+        }
+
+        long getWaitingTime(int pid) {
+            return waitingTimes[pid - base];
+        }
+
+        void addWaitingTime(int pid, long waitingTime) {
+            waitingTimes[pid - base] += waitingTime;
+        }
+
+        long getCriticalWaitStartCycle(int pid) {
+            return criticalWaitStartCycles[pid - base];
+        }
+
+        void setCriticalWaitStartCycle(int pid, long cycle) {
+            criticalWaitStartCycles[pid - base] = cycle;
+        }
+
+        long getCriticalWaitCycles(int pid) {
+            return criticalWaitCycles[pid - base];
+        }
+
+        void addCriticalWaitCycles(int pid, long waitCycles) {
+            criticalWaitCycles[pid - base] += waitCycles;
+        }
+
+        int getPageFaults(int pid) {
+            return pageFaults[pid - base];
+        }
+
+        int getPeakResidentPages(int pid) {
+            return peakResidentPages[pid - base];
+        }
+
+        void setPaging(int pid, int faults, int peakResidentPages) {
+            pageFaults[pid - base] = faults;
+            this.peakResidentPages[pid - base] = peakResidentPages;
+        }
+
+        int getMaxResource(int pid, int type) {
+            return maxResources[(pid - base) * RESOURCE_TYPES + type];
+        }
+
+        void setMaxResource(int pid, int type, int amount) {
+            maxResources[(pid - base) * RESOURCE_TYPES + type] = amount;
+        }
+
+        int getHeldResource(int pid, int type) {
+            return heldResources[(pid - base) * RESOURCE_TYPES + type];
+        }
+
+        void addHeldResource(int pid, int type, int amount) {
+            heldResources[(pid - base) * RESOURCE_TYPES + type] += amount;
+        }
+
+        void clearHeldResources(int pid) {
+            int i = pid - base;
+            Arrays.fill(heldResources, i * RESOURCE_TYPES, (i + 1) * RESOURCE_TYPES, 0);
+        }
+    }
+
+}
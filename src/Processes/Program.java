@@ -0,0 +1,84 @@
+package Processes;
+
+import Control.RandomSource;
+
+import java.io.Serializable;
+import java.util.List;
+
+/* A template compiled into a flat, immutable program shared by every process created from the template.
+ * Each instruction is INSTRUCTION_SIZE ints: its operation and section packed together, then its min and max cycles.
+ * Sections are numbered in program order, and the critical section guarding each one is kept alongside. */
+final class Program implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INSTRUCTION_SIZE = 3;
+    private static final int SECTION_SHIFT = 8;
+    private static final int OPERATION_MASK = (1 << SECTION_SHIFT) - 1;
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final int[] code;
+    // Null for each section which is not critical
+    private final CriticalSection[] criticalSections;
+
+    private Program(int[] code, CriticalSection[] criticalSections) {
+        this.code = code;
+        this.criticalSections = criticalSections;
+    }
+
+    static Program compile(List<Template.Section> sections) {
+        int length = 0;
+        for (Template.Section section : sections) {
+            length += section.getOperationSets().size();
+        }
+        int[] code = new int[length * INSTRUCTION_SIZE];
+        CriticalSection[] criticalSections = new CriticalSection[sections.size()];
+        int pc = 0;
+        for (int i = 0 ; i < sections.size() ; i++) {
+            Template.Section section = sections.get(i);
+            criticalSections[i] = section.getCriticalSection();
+            for (Template.OperationSet opSet : section.getOperationSets()) {
+                code[pc] = (i << SECTION_SHIFT) | opSet.getOperation().ordinal();
+                code[pc + 1] = opSet.getMinCycles();
+                code[pc + 2] = opSet.getMaxCycles();
+                pc += INSTRUCTION_SIZE;
+            }
+        }
+        return new Program(code, criticalSections);
+    }
+
+    // Number of instructions
+    int length() {
+        return code.length / INSTRUCTION_SIZE;
+    }
+
+    Operation getOperation(int pc) {
+        return OPERATIONS[code[pc * INSTRUCTION_SIZE] & OPERATION_MASK];
+    }
+
+    int getSection(int pc) {
+        return code[pc * INSTRUCTION_SIZE] >>> SECTION_SHIFT;
+    }
+
+    CriticalSection getCriticalSection(int section) {
+        return criticalSections[section];
+    }
+
+    // Draws the number of cycles of every instruction for a new process, in program order
+    int[] generateCycleCounts() {
+        RandomSource random = RandomSource.getInstance();
+        int[] cycleCounts = new int[length()];
+        for (int pc = 0 ; pc < cycleCounts.length ; pc++) {
+            int i = pc * INSTRUCTION_SIZE;
+            if (getOperation(pc) == Operation.FORK) {
+                cycleCounts[pc] = 1;
+            } else {
+                int minCycles = code[i + 1];
+                int maxCycles = code[i + 2];
+                cycleCounts[pc] = random.nextInt(maxCycles + 1 - minCycles) + minCycles;
+            }
+        }
+        return cycleCounts;
+    }
+
+}
@@ -1,34 +1,40 @@
 package Processes;
 
 import java.io.File;
+import java.io.Serializable;
 import java.nio.file.Paths;
 import java.util.*;
 
-public class Template {
+public class Template implements Serializable {
 
-    private static final String TEMPLATES_DIRECTORY_PATH = "templates";
+    private static final long serialVersionUID = 1L;
+
+    private static final String DEFAULT_TEMPLATES_DIRECTORY_PATH = "templates";
     private static final String MEMORY_REQUIRED_STRING = "MEMORY_REQUIRED_MB:";
     private static final String CRITICAL_SECTION_START = "CRITICAL";
     private static final String CRITICAL_SECTION_END = "/CRITICAL";
 
+    private static String templatesDirectoryPath = DEFAULT_TEMPLATES_DIRECTORY_PATH;
     private static List<Template> templates;
 
     private final int index;
     private final String name;
     private final int memoryRequiredMB;
-    private final List<Section> sections;
+    // Compiled once the template has been parsed
+    private Program program;
+    private final List<CriticalSection> criticalSections;
 
     private Template(int index, String name, int memoryRequiredMB) {
         this.index = index;
         this.name = name;
         this.memoryRequiredMB = memoryRequiredMB;
-        this.sections = new ArrayList<>();
+        this.criticalSections = new ArrayList<>();
     }
 
     private static void loadTemplates() throws MalformedTemplateException {
         int index = 0;
         templates = new ArrayList<>();
-        final File directory = Paths.get(TEMPLATES_DIRECTORY_PATH).toFile();
+        final File directory = Paths.get(templatesDirectoryPath).toFile();
         File[] files = directory.listFiles();
         if (files != null) {
             for (final File file : files) {
@@ -41,15 +47,30 @@ public class Template {
                 }
             }
         }
+        checkCriticalSections();
+    }
+
+    // Templates may share a critical section by name, but only if they agree on its kind of lock
+    private static void checkCriticalSections() throws MalformedTemplateException {
+        Map<String, CriticalSection> declarations = new HashMap<>();
+        for (Template template : templates) {
+            for (CriticalSection criticalSection : template.criticalSections) {
+                CriticalSection declared = declarations.putIfAbsent(criticalSection.getName(), criticalSection);
+                if (declared != null && !declared.isCompatibleWith(criticalSection)) {
+                    throw new MalformedTemplateException("Conflicting declarations of CS " + criticalSection.getName());
+                }
+            }
+        }
     }
 
     private static Template loadTemplate(int index, File file) throws MalformedTemplateException {
         String name = file.getName().split("\\.")[0];
         Template template;
-        List<Section> sections;
+        List<Section> sections = new ArrayList<>();
         try {
             Scanner sc = new Scanner(file);
-            boolean critical = false;
+            // Null while outside of a critical section
+            CriticalSection criticalSection = null;
             List<OperationSet> operationSets = new ArrayList<>();
             if (sc.hasNextLine()) {
                 String[] contents = sc.nextLine().trim().split("\\s+");
@@ -57,7 +78,6 @@ public class Template {
                     try {
                         int memoryRequiredMB = Integer.parseInt(contents[1]);
                         template = new Template(index, name, memoryRequiredMB);
-                        sections = template.getSections();
                     } catch (Exception e) {
                         throw new MalformedTemplateException("Memory requirement not an integer");
                     }
@@ -69,25 +89,33 @@ public class Template {
             }
             while (sc.hasNextLine()) {
                 String[] contents = sc.nextLine().trim().split("\\s+");
-                if (contents.length == 1) {
-                    boolean isStartCritical = CRITICAL_SECTION_START.equals(contents[0]);
-                    boolean isEndCritical = CRITICAL_SECTION_END.equals(contents[0]);
+                boolean isStartCritical = CRITICAL_SECTION_START.equals(contents[0]);
+                boolean isEndCritical = CRITICAL_SECTION_END.equals(contents[0]);
+                if (isStartCritical || isEndCritical) {
+                    if (criticalSection != null && isStartCritical) {
+                        throw new MalformedTemplateException("New CS formed before ending current CS");
+                    }
+                    if (criticalSection == null && isEndCritical) {
+                        throw new MalformedTemplateException("Ending CS where none exists");
+                    }
+                    if (isEndCritical && contents.length != 1) {
+                        throw new MalformedTemplateException("Wrong number of arguments");
+                    }
+                    if (operationSets.size() > 0) {
+                        Section newSection = new Section(criticalSection);
+                        newSection.getOperationSets().addAll(operationSets);
+                        sections.add(newSection);
+                        operationSets.clear();
+                    }
+                    if (isStartCritical) {
+                        criticalSection = CriticalSection.read(name, contents);
+                        template.criticalSections.add(criticalSection);
+                    } else {
+                        criticalSection = null;
+                    }
+                } else if (contents.length == 1) {
                     boolean isFork = Operation.FORK == Operation.read(contents[0]);
-                    if (isStartCritical || isEndCritical) {
-                        if (critical && isStartCritical) {
-                            throw new MalformedTemplateException("New CS formed before ending current CS");
-                        }
-                        if (!critical && isEndCritical) {
-                            throw new MalformedTemplateException("Ending CS where none exists");
-                        }
-                        if (operationSets.size() > 0) {
-                            Section newSection = new Section(critical);
-                            newSection.getOperationSets().addAll(operationSets);
-                            sections.add(newSection);
-                            operationSets.clear();
-                        }
-                        critical = !critical;
-                    } else if (isFork) {
+                    if (isFork) {
                         operationSets.add(new OperationSet(Operation.FORK));
                     } else {
                         throw new MalformedTemplateException("Unrecognized command");
@@ -113,10 +141,10 @@ public class Template {
                     throw new MalformedTemplateException("Wrong number of arguments");
                 }
             }
-            if (critical) {
+            if (criticalSection != null) {
                 throw new MalformedTemplateException("Final critical section never terminated");
             } else if (operationSets.size() > 0) {
-                Section newSection = new Section(critical);
+                Section newSection = new Section(null);
                 newSection.getOperationSets().addAll(operationSets);
                 sections.add(newSection);
             }
@@ -127,6 +155,7 @@ public class Template {
                     sections.get(0).getOperationSets().size() == 0) {
                 throw new MalformedTemplateException("No operations were processed from template");
             }
+            template.program = Program.compile(sections);
             return template;
         } catch (Exception e) {
             if (e instanceof MalformedTemplateException) {
@@ -137,6 +166,12 @@ public class Template {
         }
     }
 
+    // Must be called before templates are first loaded by getTemplates()
+    public static void setTemplatesDirectory(String path) {
+        templatesDirectoryPath = path;
+        templates = null;
+    }
+
     public static List<Template> getTemplates() throws MalformedTemplateException {
         if (templates == null) {
             loadTemplates();
@@ -156,22 +191,29 @@ public class Template {
         return name;
     }
 
-    public synchronized List<Section> getSections() {
-        return sections;
+    synchronized Program getProgram() {
+        return program;
+    }
+
+    // Every critical section declared by this template, used to create their locks
+    public synchronized List<CriticalSection> getCriticalSections() {
+        return criticalSections;
     }
 
     /* When parsing a template, any number of lines which form a critical or non-critical section
-     * of code become a Section. Each Section contains a boolean specifying whether the section
-     * is critical, as well as a list of OperationSets, each of which is derived from a single
+     * of code become a Section. Each Section contains the CriticalSection describing its lock,
+     * or null if the section is not critical, as well as a list of OperationSets, each of which is derived from a single
      * line in the template. Each operation set contains an Operation, as well as the integers
-     * minCycles and maxCycles to use when producing a Process.  */
+     * minCycles and maxCycles to use when producing a Process. The Sections are then compiled into a Program. */
+
+    static class Section implements Serializable {
+        private static final long serialVersionUID = 1L;
 
-    static class Section {
         private List<OperationSet> operationSets;
-        private final boolean critical;
+        private final CriticalSection criticalSection;
 
-        Section(boolean critical) {
-            this.critical = critical;
+        Section(CriticalSection criticalSection) {
+            this.criticalSection = criticalSection;
         }
 
         synchronized List<OperationSet> getOperationSets() {
@@ -182,11 +224,17 @@ public class Template {
         }
 
         synchronized boolean isCritical() {
-            return critical;
+            return criticalSection != null;
+        }
+
+        synchronized CriticalSection getCriticalSection() {
+            return criticalSection;
         }
     }
 
-    static class OperationSet {
+    static class OperationSet implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final Operation operation;
         private final int minCycles;
         private final int maxCycles;
@@ -207,12 +255,12 @@ public class Template {
             return operation;
         }
 
-        synchronized int generateCycleCount() {
-            if (operation == Operation.FORK) {
-                return 1;
-            }
-            Random random = new Random();
-            return random.nextInt(maxCycles + 1 - minCycles) + minCycles;
+        synchronized int getMinCycles() {
+            return minCycles;
+        }
+
+        synchronized int getMaxCycles() {
+            return maxCycles;
         }
     }
 }
@@ -1,51 +1,59 @@
 package Processor;
 
+import java.io.Serializable;
+
+import Control.CycleEngine;
 import Control.OperatingSystem;
 import Processes.PCB;
+import Processes.Priority;
 import Processes.State;
 import Scheduling.ShortTermScheduler;
+import Tracing.TraceEvent;
+import Tracing.TraceRecorder;
 
-public class Core {
+public class Core implements Serializable {
 
-    private static final int NUM_HARDWARE_THREADS = 4;
+    private static final long serialVersionUID = 1L;
 
+    private final int coreId;
     private final StatisticalUnit statisticalUnit;
-    private final Object threadCoordinator;
     private final ShortTermScheduler shortTermScheduler;
     private final HardwareThread[] hardwareThreads;
 
-    Core(ShortTermScheduler scheduler) {
-        statisticalUnit = new StatisticalUnit();
-        threadCoordinator = new Object();
+    // Null unless load balancing is enabled
+    private LoadBalancer loadBalancer;
+
+    Core(int coreId, ShortTermScheduler scheduler, int numHardwareThreads) {
+        this.coreId = coreId;
+        statisticalUnit = new StatisticalUnit(numHardwareThreads);
         shortTermScheduler = scheduler;
-        hardwareThreads = new HardwareThread[NUM_HARDWARE_THREADS];
-        for (int i = 0; i < NUM_HARDWARE_THREADS; i++) {
+        hardwareThreads = new HardwareThread[numHardwareThreads];
+        for (int i = 0; i < numHardwareThreads; i++) {
             hardwareThreads[i] = new HardwareThread();
         }
     }
 
+    int getCoreId() {
+        return coreId;
+    }
+
+    void setLoadBalancer(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
     public String getSchedulerName() {
         return shortTermScheduler.name();
     }
 
-    public void start() {
+    // Each hardware thread advances by one cycle every time the CycleEngine runs a cycle
+    public void start(CycleEngine cycleEngine, String name) {
         statisticalUnit.start();
-        for (HardwareThread hardwareThread : hardwareThreads) {
-            hardwareThread.start();
-        }
-    }
-
-    public void advance() {
-        // Notify waiting CPU threads to start a new cycle
-        synchronized (threadCoordinator) {
-            threadCoordinator.notifyAll();
+        for (int i = 0; i < hardwareThreads.length ; i++) {
+            cycleEngine.register(name + " Thread " + (i + 1), hardwareThreads[i]);
         }
     }
 
     public void stop() {
-        for (HardwareThread hardwareThread : hardwareThreads) {
-            hardwareThread.stop();
-        }
         statisticalUnit.stop();
     }
 
@@ -53,22 +61,40 @@ public class Core {
         statisticalUnit.registerTermination(p);
     }
 
-    public boolean cycleFinished() {
-        boolean finished = true;
+    public boolean isIdle() {
+        if (getReadyCount() > 0) {
+            return false;
+        }
         for (HardwareThread hardwareThread : hardwareThreads) {
-            finished = finished && hardwareThread.isWaiting();
+            if (hardwareThread.isRunning()) {
+                return false;
+            }
         }
-        return finished;
+        return true;
+    }
+
+    // Records cycles in which every hardware thread was idle
+    public void skipIdleCycles(long cycles) {
+        statisticalUnit.addIdleCycles(cycles * hardwareThreads.length);
     }
 
     public synchronized void request(PCB p) {
         shortTermScheduler.add(p);
     }
 
+    public void priorityChanged(PCB p) {
+        shortTermScheduler.priorityChanged(p);
+    }
+
     public int getReadyCount() {
         return shortTermScheduler.getReadyCount();
     }
 
+    // Gives up a ready process to another core
+    PCB stealReady() {
+        return shortTermScheduler.steal();
+    }
+
     private String getCurrentPids() {
         StringBuilder pids = new StringBuilder();
         for (int i = 0; i < hardwareThreads.length ; i++) {
@@ -83,37 +109,46 @@ public class Core {
     public String getStatistics() {
         String utilization = String.format("%.2f", (statisticalUnit.getUtilization() * 100));
         String throughput = String.format("%.2f", statisticalUnit.getThroughput());
+        String cycleThroughput = String.format("%.2f", statisticalUnit.getThroughputPerKiloCycle());
         String turnaround = String.format("%.2f", statisticalUnit.getAvgTurnaroundTime());
         String waiting = String.format("%.2f", statisticalUnit.getAvgWaitingTime());
+        String migrations = Integer.toString(statisticalUnit.getMigrations());
+        String waitingByPriority = String.format("%.2f / %.2f / %.2f",
+                statisticalUnit.getAvgWaitingTime(Priority.HIGH),
+                statisticalUnit.getAvgWaitingTime(Priority.MEDIUM),
+                statisticalUnit.getAvgWaitingTime(Priority.LOW));
+        String criticalWaitByPriority = String.format("%.2f / %.2f / %.2f",
+                statisticalUnit.getAvgCriticalWaitCycles(Priority.HIGH),
+                statisticalUnit.getAvgCriticalWaitCycles(Priority.MEDIUM),
+                statisticalUnit.getAvgCriticalWaitCycles(Priority.LOW));
         return "\n\n\tCurrent Processes: " + getCurrentPids() +
                 "\n\tUtilization: " + utilization + "%" +
-                "\n\tThroughput: " + throughput + " processes/second" +
+                "\n\tThroughput (wall clock): " + throughput + " processes/second" +
+                "\n\tThroughput (simulated): " + cycleThroughput + " processes/1000 cycles" +
                 "\n\tAvg Turnaround Time: " + turnaround + " ms" +
-                "\n\tAvg Waiting Time: " + waiting + " ms";
+                "\n\tAvg Waiting Time: " + waiting + " ms" +
+                "\n\tAvg Waiting Time (High/Medium/Low): " + waitingByPriority + " ms" +
+                "\n\tAvg Critical Section Wait (High/Medium/Low): " + criticalWaitByPriority + " cycles" +
+                "\n\tMigrations In: " + migrations;
     }
 
-    private class HardwareThread {
+    private class HardwareThread implements Runnable, Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         private PCB p;
         private int counter;
-        private Thread thread;
+        // Remaining cycles to spend migrating p from another core before it can run
+        private int migrationCycles;
 
         HardwareThread() {
             counter = 0;
-            instantiateThread();
-        }
-
-        void start() {
-            thread.start();
-        }
-
-        void stop() {
-            thread.interrupt();
-            instantiateThread();
+            migrationCycles = 0;
         }
 
-        boolean isWaiting() {
-            return thread.getState() == Thread.State.WAITING;
+        // A process still being migrated counts as running, since the hardware thread is busy with it
+        boolean isRunning() {
+            return p != null && (p.getState() == State.RUN || migrationCycles > 0);
         }
 
         int getCurrentPid() {
@@ -124,41 +159,71 @@ public class Core {
             }
         }
 
-        private void instantiateThread() {
-            thread = new Thread(() -> {
-                boolean run = true;
-                while (run) {
-                    try {
-                        // Wait until start of new cycle is signaled
-                        synchronized (threadCoordinator) {
-                            threadCoordinator.wait();
-                        }
-                        advance();
-                    } catch (InterruptedException e) {
-                        run = false;
-                    }
+        // Only called when this core has no ready processes of its own
+        private void stealProcess() {
+            p = loadBalancer.steal(Core.this);
+            // Skip processes terminated by their parent while they were ready
+            while (p != null && p.getState() == State.EXIT) {
+                p = loadBalancer.steal(Core.this);
+            }
+            if (p != null) {
+                counter = 0;
+                migrationCycles = loadBalancer.getMigrationCost();
+                statisticalUnit.registerMigration();
+                if (migrationCycles == 0) {
+                    p.setState(State.RUN);
                 }
-            });
+            }
+        }
+
+        // The process may have been terminated by its parent while it was being migrated
+        private void finishMigration() {
+            if (p.getState() == State.EXIT) {
+                p = null;
+            } else {
+                p.setState(State.RUN);
+            }
         }
 
         private void scheduleNew() {
+            int previousPid = getCurrentPid();
             counter = 0;
             if (p != null && p.getState() == State.RUN) {
                 p.setState(State.READY);
                 shortTermScheduler.add(p);
             }
             p = shortTermScheduler.remove();
+            // Skip processes terminated by their parent while they were ready
+            while (p != null && p.getState() == State.EXIT) {
+                p = shortTermScheduler.remove();
+            }
             if (p != null) {
                 p.setState(State.RUN);
+                if (p.getPid() != previousPid) {
+                    TraceRecorder.record(TraceEvent.DISPATCH, p.getPid(), coreId, previousPid);
+                }
             }
         }
 
-        private void advance() {
+        // Executes a single cycle
+        @Override
+        public void run() {
+            if (migrationCycles > 0) {
+                migrationCycles--;
+                if (migrationCycles == 0) {
+                    finishMigration();
+                }
+                statisticalUnit.incrementTotalCycles();
+                return;
+            }
             if ((p == null && getReadyCount() > 0) ||
                     (p != null && p.getState() != State.RUN)){
                 scheduleNew();
             }
-            if (p != null) {
+            if (p == null && loadBalancer != null) {
+                stealProcess();
+            }
+            if (p != null && migrationCycles == 0) {
                 p.progressOneCycle();
                 counter++;
                 if (shortTermScheduler.scheduleNew(counter) || p.getState() != State.RUN) {
@@ -0,0 +1,14 @@
+package Processor;
+
+import Processes.PCB;
+
+// Allows a core with idle hardware threads to take a ready process queued on another core
+interface LoadBalancer {
+
+    // Returns null if there is no process worth migrating to the given core
+    PCB steal(Core thief);
+
+    // Number of cycles a hardware thread spends migrating a stolen process before it can run
+    int getMigrationCost();
+
+}
@@ -1,69 +1,133 @@
 package Processor;
 
+import Control.Configuration;
+import Control.CycleEngine;
 import Processes.PCB;
-import Scheduling.MLQScheduler;
-import Scheduling.SJFScheduler;
+import Scheduling.ShortTermScheduler;
 
-public class Processor {
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Supplier;
 
-    private final Core core1;
-    private final Core core2;
+public class Processor implements Serializable {
 
-    public Processor() {
-        core1 = new Core(new SJFScheduler());
-        core2 = new Core(new MLQScheduler());
+    private static final long serialVersionUID = 1L;
+
+    private final Core[] cores;
+    private final int affinityThreshold;
+    private final int migrationCost;
+
+    public Processor(Configuration configuration) {
+        List<Supplier<ShortTermScheduler>> schedulerFactories = configuration.getSchedulerFactories();
+        cores = new Core[configuration.getNumCores()];
+        for (int i = 0 ; i < cores.length ; i++) {
+            ShortTermScheduler scheduler = schedulerFactories.get(i % schedulerFactories.size()).get();
+            cores[i] = new Core(i, scheduler, configuration.getHardwareThreadsPerCore());
+        }
+        affinityThreshold = configuration.getAffinityThreshold();
+        migrationCost = configuration.getMigrationCost();
+        if (configuration.isLoadBalancing()) {
+            LoadBalancer workStealer = new WorkStealer();
+            for (Core core : cores) {
+                core.setLoadBalancer(workStealer);
+            }
+        }
+    }
+
+    public int getNumCores() {
+        return cores.length;
     }
 
     public void request(PCB p) {
-        // Process always sent to the same core
+        // Process always sent to the core it is assigned to, which only changes if it is migrated
         // This allows us to more easily measure core performance
-        CoreId coreId = p.getCoreId();
-        if (coreId == CoreId.CORE1) {
-            core1.request(p);
-        } else {
-            core2.request(p);
-        }
+        cores[p.getCoreId()].request(p);
     }
 
-    public void start() {
-        core1.start();
-        core2.start();
+    public void priorityChanged(PCB p) {
+        cores[p.getCoreId()].priorityChanged(p);
     }
 
-    public void advance() {
-        core1.advance();
-        core2.advance();
+    public void start(CycleEngine cycleEngine) {
+        for (int i = 0 ; i < cores.length ; i++) {
+            cores[i].start(cycleEngine, getCoreName(i));
+        }
     }
 
     public void stop() {
-        core1.stop();
-        core2.stop();
+        for (Core core : cores) {
+            core.stop();
+        }
     }
 
-    public void registerTermination(PCB p) {
-        CoreId coreId = p.getCoreId();
-        if (coreId == CoreId.CORE1) {
-            core1.registerTermination(p);
-        } else {
-            core2.registerTermination(p);
+    // True if no process is running or waiting to run
+    public boolean isIdle() {
+        for (Core core : cores) {
+            if (!core.isIdle()) {
+                return false;
+            }
         }
+        return true;
     }
 
-    public boolean cycleFinished() {
-        return core1.cycleFinished() && core2.cycleFinished();
+    public void skipIdleCycles(long cycles) {
+        for (Core core : cores) {
+            core.skipIdleCycles(cycles);
+        }
     }
 
-    public int getReadyCount() {
-        return core1.getReadyCount() + core2.getReadyCount();
+    public void registerTermination(PCB p) {
+        cores[p.getCoreId()].registerTermination(p);
     }
 
     public String getStatistics() {
-        return "Core 1: " + core1.getSchedulerName() + core1.getStatistics() +
-                "\n\nCore 2: " + core2.getSchedulerName() + core2.getStatistics();
+        StringBuilder statistics = new StringBuilder();
+        for (int i = 0 ; i < cores.length ; i++) {
+            if (i > 0) {
+                statistics.append("\n\n");
+            }
+            statistics.append(getCoreName(i)).append(": ")
+                    .append(cores[i].getSchedulerName())
+                    .append(cores[i].getStatistics());
+        }
+        return statistics.toString();
     }
 
-    // Used to track which Core a PCB is assigned to
-    public enum CoreId {
-        CORE1, CORE2
+    private String getCoreName(int coreId) {
+        return "Core " + (coreId + 1);
     }
-}
\ No newline at end of file
+
+    private class WorkStealer implements LoadBalancer, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        // Takes a ready process from the core with the most ready processes
+        @Override
+        public PCB steal(Core thief) {
+            Core busiest = null;
+            int mostReady = affinityThreshold;
+            for (Core core : cores) {
+                int readyCount = core.getReadyCount();
+                if (core != thief && readyCount > mostReady) {
+                    busiest = core;
+                    mostReady = readyCount;
+                }
+            }
+            if (busiest == null) {
+                return null;
+            }
+            PCB p = busiest.stealReady();
+            if (p != null) {
+                p.setCoreId(thief.getCoreId());
+            }
+            return p;
+        }
+
+        @Override
+        public int getMigrationCost() {
+            return migrationCost;
+        }
+
+    }
+
+}
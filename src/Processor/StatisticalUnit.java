@@ -1,9 +1,16 @@
 package Processor;
 
+import java.io.Serializable;
+
 import Processes.PCB;
+import Processes.Priority;
 
 // Used by the Core class to measure scheduler performance
-public class StatisticalUnit {
+public class StatisticalUnit implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int numHardwareThreads;
 
     private boolean running = false;
 
@@ -16,8 +23,19 @@ public class StatisticalUnit {
     private long totalTurnaroundTime = 0;
     private long totalWaitingTime = 0;
 
-    private int utilizedCycles = 0;
-    private int totalCycles = 0;
+    // Indexed by the ordinal of each process's own priority
+    private final int[] completedByPriority = new int[Priority.values().length];
+    private final long[] waitingTimeByPriority = new long[Priority.values().length];
+    private final long[] criticalWaitCyclesByPriority = new long[Priority.values().length];
+
+    private int migrations = 0;
+
+    private long utilizedCycles = 0;
+    private long totalCycles = 0;
+
+    public StatisticalUnit(int numHardwareThreads) {
+        this.numHardwareThreads = numHardwareThreads;
+    }
 
     public void start() {
         running = true;
@@ -37,10 +55,26 @@ public class StatisticalUnit {
         totalCycles++;
     }
 
+    public synchronized void addIdleCycles(long cycles) {
+        totalCycles += cycles;
+    }
+
+    public synchronized void registerMigration() {
+        migrations++;
+    }
+
+    public synchronized int getMigrations() {
+        return migrations;
+    }
+
     public synchronized void registerTermination(PCB p) {
         completedProcesses++;
         totalTurnaroundTime += p.getTurnaroundTime();
         totalWaitingTime += p.getWaitingTime();
+        int priority = p.getPriority().ordinal();
+        completedByPriority[priority]++;
+        waitingTimeByPriority[priority] += p.getWaitingTime();
+        criticalWaitCyclesByPriority[priority] += p.getCriticalWaitCycles();
     }
 
     public synchronized double getUtilization() {
@@ -65,6 +99,16 @@ public class StatisticalUnit {
         return (double) completedProcesses / secondsElapsed;
     }
 
+    // Unlike getThroughput(), independent of how fast cycles are simulated
+    public synchronized double getThroughputPerKiloCycle() {
+        long elapsedCycles = totalCycles / numHardwareThreads;
+        // Prevent division by 0
+        if (elapsedCycles == 0) {
+            return 0;
+        }
+        return (double) completedProcesses * 1000 / elapsedCycles;
+    }
+
     public synchronized double getAvgTurnaroundTime() {
         // Prevent division by 0
         if (completedProcesses == 0) {
@@ -80,4 +124,21 @@ public class StatisticalUnit {
         }
         return (double) totalWaitingTime / completedProcesses;
     }
+
+    public synchronized double getAvgWaitingTime(Priority priority) {
+        // Prevent division by 0
+        if (completedByPriority[priority.ordinal()] == 0) {
+            return 0;
+        }
+        return (double) waitingTimeByPriority[priority.ordinal()] / completedByPriority[priority.ordinal()];
+    }
+
+    // Cycles spent waiting to enter critical sections, which grows when a lower priority holder is preempted
+    public synchronized double getAvgCriticalWaitCycles(Priority priority) {
+        // Prevent division by 0
+        if (completedByPriority[priority.ordinal()] == 0) {
+            return 0;
+        }
+        return (double) criticalWaitCyclesByPriority[priority.ordinal()] / completedByPriority[priority.ordinal()];
+    }
 }
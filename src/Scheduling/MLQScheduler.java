@@ -3,45 +3,114 @@ package Scheduling;
 import Processes.PCB;
 import Processes.Priority;
 
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.LinkedList;
-import java.util.Queue;
 
 // Multi-Level Queue scheduler with circular Round Robin queues for each level
 // A lower priority process may only be scheduled if there are no higher priority processes waiting
 public class MLQScheduler extends ShortTermScheduler {
 
+    private static final long serialVersionUID = 1L;
+
     private static final int TIME_QUANTUM = 10;
+    private static final int INITIAL_PIDS = 64;
 
-    private final Queue<PCB> highPriorityQueue;
-    private final Queue<PCB> mediumPriorityQueue;
-    private final Queue<PCB> lowPriorityQueue;
+    private final Deque<PCB> highPriorityQueue;
+    private final Deque<PCB> mediumPriorityQueue;
+    private final Deque<PCB> lowPriorityQueue;
+    // Indexed by pid, the priority of the queue each ready process is in, or null if it isn't queued
+    // An exited process is left in its queue while its pid is reused, so the process owning each slot is kept too
+    private Priority[] queuedPriorities;
+    private PCB[] queuedProcesses;
 
     public MLQScheduler() {
         highPriorityQueue = new LinkedList<>();
         mediumPriorityQueue = new LinkedList<>();
         lowPriorityQueue = new LinkedList<>();
+        queuedPriorities = new Priority[INITIAL_PIDS];
+        queuedProcesses = new PCB[INITIAL_PIDS];
     }
 
     public synchronized void add(PCB p) {
-        if (p.getPriority() == Priority.HIGH) {
-            highPriorityQueue.add(p);
-        } else if (p.getPriority() == Priority.MEDIUM) {
-            mediumPriorityQueue.add(p);
-        } else {
-            lowPriorityQueue.add(p);
+        Priority priority = p.getEffectivePriority();
+        queueFor(priority).add(p);
+        int pid = p.getPid();
+        if (pid >= queuedPriorities.length) {
+            int capacity = Math.max(pid + 1, queuedPriorities.length * 2);
+            queuedPriorities = Arrays.copyOf(queuedPriorities, capacity);
+            queuedProcesses = Arrays.copyOf(queuedProcesses, capacity);
         }
+        queuedPriorities[pid] = priority;
+        queuedProcesses[pid] = p;
     }
 
     public synchronized PCB remove() {
+        PCB p;
         if (!highPriorityQueue.isEmpty()) {
-            return highPriorityQueue.poll();
+            p = highPriorityQueue.poll();
         } else if (!mediumPriorityQueue.isEmpty()) {
-            return mediumPriorityQueue.poll();
+            p = mediumPriorityQueue.poll();
         } else if (!lowPriorityQueue.isEmpty()) {
-            return lowPriorityQueue.poll();
+            p = lowPriorityQueue.poll();
+        } else {
+            return null;
+        }
+        dequeued(p);
+        return p;
+    }
+
+    // The most recently queued process of the lowest priority waiting
+    @Override
+    public synchronized PCB steal() {
+        PCB p;
+        if (!lowPriorityQueue.isEmpty()) {
+            p = lowPriorityQueue.pollLast();
+        } else if (!mediumPriorityQueue.isEmpty()) {
+            p = mediumPriorityQueue.pollLast();
+        } else if (!highPriorityQueue.isEmpty()) {
+            p = highPriorityQueue.pollLast();
         } else {
             return null;
         }
+        dequeued(p);
+        return p;
+    }
+
+    // Moves a ready process to the queue matching its new effective priority
+    // Returns straight away for a process which isn't queued, e.g. a lock holder which is running, otherwise
+    // only the queue the process is in is scanned to remove it
+    @Override
+    public synchronized void priorityChanged(PCB p) {
+        int pid = p.getPid();
+        if (pid >= queuedPriorities.length || queuedProcesses[pid] != p) {
+            return;
+        }
+        Priority queued = queuedPriorities[pid];
+        if (queued == p.getEffectivePriority()) {
+            return;
+        }
+        queueFor(queued).remove(p);
+        add(p);
+    }
+
+    // Only clears the slot if it wasn't since taken by a new process given the pid of p
+    private void dequeued(PCB p) {
+        int pid = p.getPid();
+        if (queuedProcesses[pid] == p) {
+            queuedPriorities[pid] = null;
+            queuedProcesses[pid] = null;
+        }
+    }
+
+    private Deque<PCB> queueFor(Priority priority) {
+        if (priority == Priority.HIGH) {
+            return highPriorityQueue;
+        } else if (priority == Priority.MEDIUM) {
+            return mediumPriorityQueue;
+        } else {
+            return lowPriorityQueue;
+        }
     }
 
     public synchronized int getReadyCount() {
@@ -2,15 +2,17 @@ package Scheduling;
 
 import Processes.PCB;
 
+import java.util.Deque;
 import java.util.LinkedList;
-import java.util.Queue;
 
 // Round Robin scheduler employing a circular queue
 public class RRScheduler extends ShortTermScheduler {
 
+    private static final long serialVersionUID = 1L;
+
     private static final int TIME_QUANTUM = 10;
 
-    private final Queue<PCB> queue;
+    private final Deque<PCB> queue;
 
     public RRScheduler() {
         queue = new LinkedList<>();
@@ -24,6 +26,12 @@ public class RRScheduler extends ShortTermScheduler {
         return queue.poll();
     }
 
+    // The most recently queued process is the last to be given a turn
+    @Override
+    public synchronized PCB steal() {
+        return queue.pollLast();
+    }
+
     public synchronized int getReadyCount() {
         return queue.size();
     }
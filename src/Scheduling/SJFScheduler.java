@@ -2,26 +2,38 @@ package Scheduling;
 
 import Processes.PCB;
 
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
 
 // Shortest Job First scheduler using the number of CALCULATE operations in a burst
 public class SJFScheduler extends ShortTermScheduler {
 
-    private final Queue<PCB> queue;
+    private static final long serialVersionUID = 1L;
+
+    // Ordered at both ends, so the shortest job can be scheduled and the longest stolen without a scan
+    private final NavigableSet<Entry> queue;
+    private long nextSequence;
 
     public SJFScheduler() {
-        // The compareTo() method in the PCB class will determine the ordering
-        // This method orders PCBs by number of CALCULATE operations in current operation set
-        queue = new PriorityQueue<>();
+        queue = new TreeSet<>(new BurstOrder());
     }
 
     public synchronized void add(PCB p) {
-        queue.add(p);
+        queue.add(new Entry(p, nextSequence++));
     }
 
     public synchronized PCB remove() {
-        return queue.poll();
+        Entry entry = queue.pollFirst();
+        return entry == null ? null : entry.p;
+    }
+
+    // The longest job
+    @Override
+    public synchronized PCB steal() {
+        Entry entry = queue.pollLast();
+        return entry == null ? null : entry.p;
     }
 
     public synchronized int getReadyCount() {
@@ -37,4 +49,34 @@ public class SJFScheduler extends ShortTermScheduler {
         return "Shortest Job First";
     }
 
+    // A process queued along with the order in which it was queued
+    // The pid can't tell processes apart, since an exited process is left in the queue while its pid is reused
+    private static class Entry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PCB p;
+        private final long sequence;
+
+        private Entry(PCB p, long sequence) {
+            this.p = p;
+            this.sequence = sequence;
+        }
+
+    }
+
+    // The compareTo() method in the PCB class orders PCBs by number of CALCULATE operations in current operation set
+    // Ties are broken by the order processes were queued in, since a set keeps only one of two entries comparing equal
+    private static class BurstOrder implements Comparator<Entry>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int compare(Entry e1, Entry e2) {
+            int order = e1.p.compareTo(e2.p);
+            return order != 0 ? order : Long.compare(e1.sequence, e2.sequence);
+        }
+
+    }
+
 }
@@ -1,11 +1,22 @@
 package Scheduling;
 
+import java.io.Serializable;
+
 import Processes.PCB;
 
-public abstract class ShortTermScheduler {
+public abstract class ShortTermScheduler implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     public abstract void add(PCB p);
     public abstract PCB remove();
     public abstract int getReadyCount();
     public abstract boolean scheduleNew(int counter);
     public abstract String name();
+
+    // Called when the effective priority of a process may have changed, whether or not it is ready
+    public void priorityChanged(PCB p) {}
+
+    // Removes a process to be migrated to another core, returns null if none are ready
+    // Chooses the process which would otherwise wait longest, leaving the next to run on the core whose cache is warm
+    public abstract PCB steal();
 }
@@ -0,0 +1,91 @@
+package Tracing;
+
+import Control.OperatingSystem;
+import Processes.State;
+
+// Kinds of events in a trace, the meaning of the argument of each trace record depends on its event
+public enum TraceEvent {
+
+    // Argument holds the old state in the second byte, 0xFF for a new process, and the new state in the first byte
+    STATE_CHANGE,
+    // A hardware thread switched to the process, argument is the pid of the process it was running before,
+    // or the kernel id if it was idle
+    DISPATCH,
+    // Argument is the frame the faulting page was swapped into
+    PAGE_FAULT,
+    // Argument is the total number of resources requested
+    RESOURCE_GRANT,
+    RESOURCE_DENY,
+    // Argument is the id of the lock, which is the order in which locks were created at boot
+    LOCK_ACQUIRE,
+    LOCK_WAIT,
+    // The process was woken up holding the lock it was waiting on
+    LOCK_WAKEUP,
+    // Argument is the pid of the child
+    FORK,
+    EXIT,
+    // A page was evicted to make room for a page of the process, argument is the frame it was evicted from
+    PAGE_EVICT,
+    // The process wrote to a page shared since a FORK, argument is the frame its private copy was placed in
+    PAGE_COPY;
+
+    private static final TraceEvent[] EVENTS = values();
+    private static final int NO_STATE = 0xFF;
+
+    // Event codes start at 1, code 0 marks the unused tail of a chunk
+    int getCode() {
+        return ordinal() + 1;
+    }
+
+    // Returns null for padding or an unrecognized code
+    static TraceEvent fromCode(int code) {
+        if (code < 1 || code > EVENTS.length) {
+            return null;
+        }
+        return EVENTS[code - 1];
+    }
+
+    public static long encodeStateChange(State oldState, State newState) {
+        int old = oldState == null ? NO_STATE : oldState.ordinal();
+        return (old << 8) | newState.ordinal();
+    }
+
+    // True if the argument of a STATE_CHANGE record marks the creation of a process
+    static boolean isCreation(long argument) {
+        return ((argument >> 8) & 0xFF) == NO_STATE;
+    }
+
+    String describe(long argument) {
+        switch (this) {
+            case STATE_CHANGE:
+                State newState = State.values()[(int) argument & 0xFF];
+                if (isCreation(argument)) {
+                    return "created " + newState;
+                }
+                return State.values()[(int) (argument >> 8) & 0xFF] + " -> " + newState;
+            case DISPATCH:
+                return argument == OperatingSystem.KERNEL_ID ? "dispatched" : "dispatched, replacing pid " + argument;
+            case PAGE_FAULT:
+                return "page fault, swapped into frame " + argument;
+            case RESOURCE_GRANT:
+                return "granted " + argument + " resources";
+            case RESOURCE_DENY:
+                return "denied " + argument + " resources";
+            case LOCK_ACQUIRE:
+                return "acquired lock " + argument;
+            case LOCK_WAIT:
+                return "waiting on lock " + argument;
+            case LOCK_WAKEUP:
+                return "woken up holding lock";
+            case FORK:
+                return "forked child " + argument;
+            case PAGE_EVICT:
+                return "evicted page from frame " + argument;
+            case PAGE_COPY:
+                return "copied shared page on write into frame " + argument;
+            default:
+                return "exited";
+        }
+    }
+
+}
@@ -0,0 +1,9 @@
+package Tracing;
+
+// Receives every traced event as it happens, on the thread which caused it
+// Must be fast and thread-safe, since events are raised from every hardware thread
+public interface TraceListener {
+
+    void onEvent(TraceEvent event, int pid, int core, long argument);
+
+}
@@ -0,0 +1,110 @@
+package Tracing;
+
+import java.io.*;
+import java.util.*;
+
+// Turns a trace recorded by the TraceRecorder into a timeline for each process
+// Usage: TraceReader <trace file> [pid ...]
+public class TraceReader {
+
+    private static class Record {
+        private final long cycle;
+        private final TraceEvent event;
+        private final int core;
+        private final long argument;
+
+        Record(long cycle, TraceEvent event, int core, long argument) {
+            this.cycle = cycle;
+            this.event = event;
+            this.core = core;
+            this.argument = argument;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: TraceReader <trace file> [pid ...]");
+            System.exit(1);
+            return;
+        }
+        Set<Integer> selected = new HashSet<>();
+        try {
+            for (int i = 1 ; i < args.length ; i++) {
+                selected.add(Integer.parseInt(args[i]));
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Not a pid: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        Map<Integer, List<Record>> timelines;
+        try {
+            timelines = read(args[0], selected);
+        } catch (IOException e) {
+            System.out.println("Unable to read trace: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        for (Map.Entry<Integer, List<Record>> timeline : timelines.entrySet()) {
+            printTimeline(timeline.getKey(), timeline.getValue());
+        }
+    }
+
+    // Timelines are sorted by pid, and the records of each timeline by cycle
+    // An empty selection reads the records of every process
+    private static Map<Integer, List<Record>> read(String path, Set<Integer> selected) throws IOException {
+        Map<Integer, List<Record>> timelines = new TreeMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != TraceRecorder.MAGIC) {
+                throw new IOException("Not a trace file: " + path);
+            }
+            int version = in.readInt();
+            if (version != TraceRecorder.VERSION || in.readInt() != TraceRecorder.RECORD_SIZE) {
+                throw new IOException("Unsupported trace version " + version + ": " + path);
+            }
+            in.skipBytes(TraceRecorder.HEADER_SIZE - 12);
+            long events = 0;
+            while (true) {
+                long cycle;
+                try {
+                    cycle = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                int pid = in.readInt();
+                TraceEvent event = TraceEvent.fromCode(in.readShort());
+                int core = in.readShort();
+                long argument = in.readLong();
+                // Padding at the end of a chunk
+                if (event == null) {
+                    continue;
+                }
+                events++;
+                if (selected.isEmpty() || selected.contains(pid)) {
+                    timelines.computeIfAbsent(pid, k -> new ArrayList<>()).add(new Record(cycle, event, core, argument));
+                }
+            }
+            System.out.println(events + " events recorded");
+        }
+        // Stable sort, so events in the same cycle keep the order they were recorded in by each thread
+        for (List<Record> timeline : timelines.values()) {
+            timeline.sort(Comparator.comparingLong(record -> record.cycle));
+        }
+        return timelines;
+    }
+
+    // Pids are recycled, so a timeline may cover several processes, each of which starts when it is created
+    private static void printTimeline(int pid, List<Record> timeline) {
+        System.out.println();
+        System.out.println("PID " + pid);
+        for (Record record : timeline) {
+            if (record.event == TraceEvent.STATE_CHANGE && TraceEvent.isCreation(record.argument)
+                    && record != timeline.get(0)) {
+                System.out.println("PID " + pid + " (recycled)");
+            }
+            String core = record.core == TraceRecorder.NO_CORE ? "" : "Core " + (record.core + 1);
+            System.out.println(String.format("%12d  %-7s %s", record.cycle, core, record.event.describe(record.argument)));
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+package Tracing;
+
+import Control.OperatingSystem;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* Optional recorder of kernel events, written as fixed-size binary records to a memory-mapped file.
+ * The file is a header followed by chunks, each of which is claimed and mapped by a single thread,
+ * so recording an event is a thread-local lookup and a few writes to mapped memory with no locking.
+ * Only claiming a new chunk touches shared state. A chunk which isn't filled up is padded with zeros,
+ * and since every thread writes to its own chunks, records are only ordered by cycle across chunks.
+ *
+ * Record layout: cycle (long), pid (int), event code (short), core (short, -1 if none), argument (long) */
+public class TraceRecorder {
+
+    static final int MAGIC = 0x4F535452;
+    static final int VERSION = 1;
+    static final int RECORD_SIZE = 24;
+    static final int HEADER_SIZE = RECORD_SIZE;
+    static final int NO_CORE = -1;
+
+    private static final int RECORDS_PER_CHUNK = 4096;
+    private static final int CHUNK_SIZE = RECORD_SIZE * RECORDS_PER_CHUNK;
+
+    // The flight recorder events are compiled separately for Java 11 and later, so they are looked up at runtime
+    private static final String FLIGHT_RECORDER_EVENTS = "FlightRecorder.SimulatorEvents";
+
+    // Null unless tracing, checked before every event so that a disabled recorder costs a single read
+    private static volatile TraceRecorder instance;
+    // Null unless some other consumer, e.g. a flight recording, is interested in events
+    private static volatile TraceListener listener;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final AtomicLong nextChunk;
+    private final ThreadLocal<ByteBuffer> buffers;
+    // Every chunk claimed so far, only used to force them to disk
+    private final List<MappedByteBuffer> chunks;
+
+    private TraceRecorder(String path) throws IOException {
+        file = new RandomAccessFile(path, "rw");
+        file.setLength(0);
+        channel = file.getChannel();
+        nextChunk = new AtomicLong(HEADER_SIZE);
+        buffers = new ThreadLocal<>();
+        chunks = new ArrayList<>();
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(CHUNK_SIZE);
+        chunks.add(header);
+    }
+
+    // Starts recording every subsequent event to a new trace file
+    public static void start(String path) throws IOException {
+        if (instance != null) {
+            throw new IllegalStateException("A trace is already being recorded");
+        }
+        instance = new TraceRecorder(path);
+    }
+
+    // Writes everything recorded so far to disk and closes the file
+    public static void stop() throws IOException {
+        TraceRecorder recorder = instance;
+        if (recorder == null) {
+            return;
+        }
+        instance = null;
+        recorder.flush();
+        recorder.channel.close();
+        recorder.file.close();
+    }
+
+    public static boolean isEnabled() {
+        return instance != null || listener != null;
+    }
+
+    // Events are passed to the listener whether or not a trace file is being recorded
+    public static void setListener(TraceListener traceListener) {
+        listener = traceListener;
+    }
+
+    // Emits events to Java Flight Recorder whenever a recording is running, if this JVM and build support it
+    public static void registerFlightRecorder() {
+        try {
+            Class.forName(FLIGHT_RECORDER_EVENTS).getMethod("register").invoke(null);
+        } catch (ReflectiveOperationException | LinkageError ignored) {
+            // Built without the flight recorder events, or running on a JVM without Flight Recorder
+        }
+    }
+
+    // Called whenever the OS halts, so the trace can be read while the simulation is paused
+    public static void flushTrace() {
+        TraceRecorder recorder = instance;
+        if (recorder != null) {
+            recorder.flush();
+        }
+    }
+
+    public static void record(TraceEvent event, int pid, long argument) {
+        record(event, pid, NO_CORE, argument);
+    }
+
+    public static void record(TraceEvent event, int pid, int core, long argument) {
+        TraceRecorder recorder = instance;
+        if (recorder != null) {
+            recorder.write(event, pid, core, argument);
+        }
+        TraceListener current = listener;
+        if (current != null) {
+            current.onEvent(event, pid, core, argument);
+        }
+    }
+
+    private void write(TraceEvent event, int pid, int core, long argument) {
+        ByteBuffer buffer = buffers.get();
+        if (buffer == null || buffer.remaining() < RECORD_SIZE) {
+            buffer = claimChunk();
+            if (buffer == null) {
+                return;
+            }
+            buffers.set(buffer);
+        }
+        buffer.putLong(OperatingSystem.getInstance().getElapsedCycles())
+                .putInt(pid)
+                .putShort((short) event.getCode())
+                .putShort((short) core)
+                .putLong(argument);
+    }
+
+    // Returns null if the chunk couldn't be mapped, in which case recording stops rather than failing the simulation
+    private ByteBuffer claimChunk() {
+        long position = nextChunk.getAndAdd(CHUNK_SIZE);
+        try {
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE, position, CHUNK_SIZE);
+            synchronized (chunks) {
+                chunks.add(chunk);
+            }
+            return chunk;
+        } catch (IOException e) {
+            System.out.println("Unable to extend trace, recording stopped: " + e.getMessage());
+            instance = null;
+            return null;
+        }
+    }
+
+    private void flush() {
+        synchronized (chunks) {
+            for (MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+        }
+    }
+
+}
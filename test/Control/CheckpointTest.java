@@ -0,0 +1,118 @@
+package Control;
+
+import Memory.MainMemory;
+import Processes.PCB;
+import Processes.Template;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CheckpointTest {
+
+    private static final int PROCESSES_PER_TEMPLATE = 3;
+    private static final long MAX_CYCLES = 3000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void restoresKernelStateSavedWhenHalted() throws IOException {
+        Configuration configuration = new Configuration();
+        configuration.setDemandPaging(true);
+        // Tests are run from the simulator module
+        Template.setTemplatesDirectory("../templates");
+        OperatingSystem.configure(configuration);
+        RandomSource.setSeed(3);
+        OperatingSystem os = OperatingSystem.getInstance();
+        os.setSpeedLimit(CycleEngine.MAX_SPEED);
+        os.setSingleThreaded(true);
+        os.setCycleProfiling(false);
+        os.boot(new BatchInterface());
+        os.runOS();
+        assertEquals(MAX_CYCLES, os.getElapsedCycles());
+
+        ResourceManager resourceManager = ResourceManager.getInstance();
+        String resourceStatistics = resourceManager.getStatistics();
+        MainMemory mainMemory = MainMemory.getInstance();
+        String memoryStatistics = mainMemory.getStatistics();
+        List<Integer> terminated = getTerminatedPids(os);
+        assertFalse(terminated.isEmpty());
+
+        File file = folder.newFile("run.ckpt");
+        os.saveCheckpoint(file.getPath());
+        // Restoring configures the MainMemory again, which is only allowed before it is created
+        MainMemory.restore(null);
+        Checkpoint checkpoint = Checkpoint.restore(file.getPath());
+
+        OperatingSystem restored = checkpoint.getOperatingSystem();
+        assertNotSame(os, restored);
+        assertEquals(MAX_CYCLES, restored.getElapsedCycles());
+        assertEquals(terminated, getTerminatedPids(restored));
+        assertTrue(checkpoint.getConfiguration().isDemandPaging());
+        assertEquals(configuration.getNumCores(), checkpoint.getConfiguration().getNumCores());
+
+        // Every other singleton is replaced with its restored copy
+        assertNotSame(resourceManager, ResourceManager.getInstance());
+        assertEquals(resourceStatistics, ResourceManager.getInstance().getStatistics());
+        assertNotSame(mainMemory, MainMemory.getInstance());
+        assertEquals(memoryStatistics, MainMemory.getInstance().getStatistics());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsFileWhichIsNotCheckpoint() throws IOException {
+        File file = folder.newFile("notes.txt");
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write("not a checkpoint".getBytes());
+        }
+
+        Checkpoint.restore(file.getPath());
+    }
+
+    private static List<Integer> getTerminatedPids(OperatingSystem os) {
+        List<Integer> pids = new ArrayList<>();
+        for (ProcessSummary summary : os.getRecentTerminations()) {
+            pids.add(summary.getPid());
+        }
+        return pids;
+    }
+
+    // Creates the same number of processes from each template, and runs for a fixed number of cycles
+    private static class BatchInterface implements UserInterface {
+
+        @Override
+        public void requestNumProcesses(List<Template> templates) {
+            List<Integer> processesPerTemplate = new ArrayList<>();
+            for (int i = 0 ; i < templates.size() ; i++) {
+                processesPerTemplate.add(PROCESSES_PER_TEMPLATE);
+            }
+            OperatingSystem.getInstance().createProcesses(templates, processesPerTemplate);
+        }
+
+        @Override
+        public void requestNumCycles() {
+            OperatingSystem.getInstance().setMaxCycles(MAX_CYCLES);
+        }
+
+        @Override
+        public void updateRunningScene(List<PCB> runningProcesses, long elapsedMs, long elapsedCycles, int numRunning,
+                                       int numReady, int numIo, int numResources, int numCritical,
+                                       int numTerminated, String processorStats) {}
+
+        @Override
+        public void setHalted() {}
+
+        @Override
+        public void setCompleted() {}
+
+    }
+
+}
@@ -0,0 +1,101 @@
+package Control;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CycleEngineTest {
+
+    private static final int FAILING_CYCLE = 3;
+
+    private CycleEngine engine;
+    private AtomicInteger cycles;
+
+    @Before
+    public void setUp() {
+        engine = new CycleEngine();
+        engine.setCyclesPerSecond(CycleEngine.MAX_SPEED);
+        cycles = new AtomicInteger();
+    }
+
+    @Test
+    public void runsEveryTaskOncePerCycle() {
+        AtomicInteger otherCycles = new AtomicInteger();
+        engine.register("first", cycles::incrementAndGet);
+        engine.register("second", otherCycles::incrementAndGet);
+        engine.start();
+
+        for (int i = 0 ; i < 10 ; i++) {
+            engine.runCycle();
+        }
+        engine.stop();
+
+        assertEquals(10, cycles.get());
+        assertEquals(10, otherCycles.get());
+    }
+
+    // Times out if the kernel thread is left waiting on the barrier
+    @Test(timeout = 10000)
+    public void exceptionInTaskIsRethrownOnKernelThread() {
+        IllegalStateException thrown = new IllegalStateException("Task failed");
+        engine.register("failing", () -> {
+            if (cycles.incrementAndGet() == FAILING_CYCLE) {
+                throw thrown;
+            }
+        });
+        engine.register("other", () -> {});
+        engine.start();
+
+        try {
+            for (int i = 0 ; i < FAILING_CYCLE * 2 ; i++) {
+                engine.runCycle();
+            }
+            fail("Exception was not rethrown");
+        } catch (IllegalStateException e) {
+            assertSame(thrown, e);
+        }
+        assertEquals(FAILING_CYCLE, cycles.get());
+        engine.stop();
+    }
+
+    @Test(timeout = 10000)
+    public void errorInTaskIsRethrownOnKernelThread() {
+        AssertionError thrown = new AssertionError("Task failed");
+        engine.register("failing", () -> {
+            throw thrown;
+        });
+        engine.start();
+
+        try {
+            engine.runCycle();
+            fail("Error was not rethrown");
+        } catch (AssertionError e) {
+            assertSame(thrown, e);
+        }
+        engine.stop();
+    }
+
+    @Test(timeout = 10000)
+    public void canBeStartedAgainAfterTaskFails() {
+        engine.register("failing", () -> {
+            throw new IllegalStateException("Task failed");
+        });
+        engine.start();
+        try {
+            engine.runCycle();
+            fail("Exception was not rethrown");
+        } catch (IllegalStateException expected) {}
+        engine.stop();
+
+        engine.register("counting", cycles::incrementAndGet);
+        engine.start();
+        engine.runCycle();
+        engine.stop();
+
+        assertEquals(1, cycles.get());
+    }
+
+}
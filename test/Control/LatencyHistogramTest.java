@@ -0,0 +1,86 @@
+package Control;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    private static final int SUB_BUCKETS = 16;
+
+    @Test
+    public void valuesBelowSubBucketsHaveTheirOwnBucket() {
+        for (int value = 0 ; value < SUB_BUCKETS ; value++) {
+            assertEquals(value, LatencyHistogram.bucketOf(value));
+            assertEquals(value, LatencyHistogram.upperBoundOf(value));
+        }
+        assertEquals(SUB_BUCKETS, LatencyHistogram.bucketOf(SUB_BUCKETS));
+    }
+
+    @Test
+    public void powerOfTwoStartsNewBucket() {
+        for (int bit = 4 ; bit < 63 ; bit++) {
+            long value = 1L << bit;
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertEquals((bit - 3) * SUB_BUCKETS, bucket);
+            assertEquals(bucket - 1, LatencyHistogram.bucketOf(value - 1));
+            // Each power of two is split into SUB_BUCKETS buckets
+            assertEquals(value + (value / SUB_BUCKETS) - 1, LatencyHistogram.upperBoundOf(bucket));
+        }
+    }
+
+    @Test
+    public void maxValueIsInLastBucket() {
+        int bucket = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        assertEquals(60 * SUB_BUCKETS - 1, bucket);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(bucket));
+    }
+
+    @Test
+    public void everyValueIsWithinItsBucket() {
+        int previous = 0;
+        for (long value = 0 ; value < 100_000 ; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upperBound = LatencyHistogram.upperBoundOf(bucket);
+            assertTrue(bucket == previous || bucket == previous + 1);
+            assertTrue(upperBound >= value);
+            assertTrue(upperBound - value <= value / SUB_BUCKETS);
+            if (bucket > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(bucket - 1) < value);
+            }
+            previous = bucket;
+        }
+    }
+
+    @Test
+    public void percentilesOfKnownDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1 ; value <= 1000 ; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        // 500 is in the bucket 496-511, 990 in the bucket 960-991
+        assertEquals(511, histogram.getPercentile(50));
+        assertEquals(991, histogram.getPercentile(99));
+        // Never more than the largest recorded value, although its bucket ends at 1023
+        assertEquals(1000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void negativeDurationIsRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+}
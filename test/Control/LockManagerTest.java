@@ -0,0 +1,125 @@
+package Control;
+
+import Processes.CriticalSection;
+import Processes.PCB;
+import Processes.Priority;
+import Processes.State;
+import Processes.Template;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LockManagerTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static OperatingSystem os;
+    private static Template template;
+    private static CriticalSection criticalSection;
+
+    // Every process made from the template asks for the same mutex as soon as it is created
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        File templates = folder.newFolder("templates");
+        try (Writer out = new FileWriter(new File(templates, "locked.txt"))) {
+            out.write("MEMORY_REQUIRED_MB: 2\nCRITICAL\nCALCULATE 5 6\n/CRITICAL\n");
+        }
+        Template.setTemplatesDirectory(templates.getPath());
+        OperatingSystem.configure(new Configuration());
+        os = OperatingSystem.getInstance();
+        os.boot(new IdleInterface());
+        template = Template.getTemplates().get(0);
+        criticalSection = template.getCriticalSections().get(0);
+    }
+
+    // Times out if the releasing thread never waits for the monitor of the process it admitted
+    @Test(timeout = 10000)
+    public void terminatingProcessAdmittedButNotWokenUpPassesLockOn() throws InterruptedException {
+        PCB holder = createProcess();
+        PCB admitted = createProcess();
+        PCB next = createProcess();
+        assertEquals(State.WAIT, admitted.getState());
+        assertEquals(State.WAIT, next.getState());
+
+        Thread releaser = new Thread(() -> os.releaseCriticalSection(holder.getPid(), criticalSection));
+        // Holding the monitor of the admitted process stops the releasing thread just before waking it up
+        synchronized (admitted) {
+            releaser.start();
+            while (releaser.getState() != Thread.State.BLOCKED) {
+                Thread.sleep(1);
+            }
+            admitted.terminateProcess();
+        }
+        releaser.join();
+
+        assertEquals(State.EXIT, admitted.getState());
+        assertNotEquals(State.WAIT, next.getState());
+        // Throws unless the lock was passed on to the next waiter
+        os.releaseCriticalSection(next.getPid(), criticalSection);
+    }
+
+    @Test
+    public void wakeupIsIgnoredOnceTerminated() {
+        PCB holder = createProcess();
+        PCB waiter = createProcess();
+
+        waiter.terminateProcess();
+        waiter.wakeup();
+
+        assertEquals(State.EXIT, waiter.getState());
+        os.releaseCriticalSection(holder.getPid(), criticalSection);
+    }
+
+    @Test
+    public void cancellingHolderReleasesEachKindOfLock() {
+        int[] admitted = new int[1];
+        List<CriticalSectionLock> locks = Arrays.asList(new Mutex(), new Semaphore(1), new ReadWriteLock());
+        for (CriticalSectionLock lock : locks) {
+            admitted[0] = 0;
+            assertTrue(lock.acquire(1, false, Priority.LOW));
+            assertFalse(lock.acquire(2, false, Priority.LOW));
+
+            lock.cancel(1, pid -> admitted[0] = pid);
+
+            assertEquals(2, admitted[0]);
+            lock.release(2, pid -> fail("No process should be admitted"));
+        }
+    }
+
+    private static PCB createProcess() {
+        int pid = os.createProcess(template);
+        return os.pidLookup(pid);
+    }
+
+    private static class IdleInterface implements UserInterface {
+
+        @Override
+        public void requestNumProcesses(List<Template> templates) {}
+
+        @Override
+        public void requestNumCycles() {}
+
+        @Override
+        public void updateRunningScene(List<PCB> runningProcesses, long elapsedMs, long elapsedCycles, int numRunning,
+                                       int numReady, int numIo, int numResources, int numCritical,
+                                       int numTerminated, String processorStats) {}
+
+        @Override
+        public void setHalted() {}
+
+        @Override
+        public void setCompleted() {}
+
+    }
+
+}
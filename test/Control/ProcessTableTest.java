@@ -0,0 +1,146 @@
+package Control;
+
+import Communication.IPCStandard;
+import Processes.MalformedTemplateException;
+import Processes.PCB;
+import Processes.Template;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ProcessTableTest {
+
+    // Matches the initial capacity of the table
+    private static final int CAPACITY = 256;
+
+    private static Template template;
+
+    private ProcessTable table;
+
+    @BeforeClass
+    public static void setUpClass() throws MalformedTemplateException {
+        // Tests are run from the simulator module
+        Template.setTemplatesDirectory("../templates");
+        OperatingSystem.configure(new Configuration());
+        OperatingSystem.getInstance();
+        template = Template.getTemplates().get(0);
+    }
+
+    @Before
+    public void setUp() {
+        table = new ProcessTable();
+    }
+
+    @Test
+    public void neverHandsOutKernelPid() {
+        assertEquals(OperatingSystem.KERNEL_ID + 1, table.allocatePid());
+        assertNull(table.get(OperatingSystem.KERNEL_ID));
+    }
+
+    @Test
+    public void processIsOnlyFoundOncePut() {
+        int pid = table.allocatePid();
+        assertNull(table.get(pid));
+
+        PCB p = createProcess(pid);
+        table.put(p);
+
+        assertSame(p, table.get(pid));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void lookupOutsideTableReturnsNull() {
+        assertNull(table.get(-1));
+        assertNull(table.get(CAPACITY * 4));
+    }
+
+    @Test
+    public void removedPidIsNotReusedBeforeCursorWrapsAround() {
+        List<Integer> pids = fill(3);
+
+        assertNotNull(table.remove(pids.get(1)));
+
+        assertNull(table.get(pids.get(1)));
+        assertEquals(2, table.size());
+        assertEquals(pids.get(2) + 1, table.allocatePid());
+    }
+
+    @Test
+    public void removingUnknownPidReturnsNull() {
+        assertNull(table.remove(5));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void reusesFreedPidOnceCursorReachesEndOfTable() {
+        fill(CAPACITY - 1);
+        table.remove(10);
+        table.releaseRemoved();
+
+        assertEquals(10, table.allocatePid());
+    }
+
+    @Test
+    public void removedPidIsNotReusedUntilReleased() {
+        fill(CAPACITY - 2);
+        table.remove(10);
+
+        assertEquals(CAPACITY - 1, table.allocatePid());
+        // Every pid is in use or not yet released, so the table grows rather than reusing the removed pid
+        assertEquals(CAPACITY, table.allocatePid());
+    }
+
+    @Test
+    public void growsOnceEveryPidIsInUse() {
+        List<Integer> pids = fill(CAPACITY - 1);
+
+        int pid = table.allocatePid();
+        assertEquals(CAPACITY, pid);
+        table.put(createProcess(pid));
+
+        // Processes put before the table grew are still found
+        for (int existing : pids) {
+            assertEquals(existing, table.get(existing).getPid());
+        }
+        assertEquals(CAPACITY, table.size());
+    }
+
+    @Test
+    public void visitsProcessesInPidOrder() {
+        fill(5);
+        table.remove(2);
+        // Allocated but not yet put, so not visited
+        table.allocatePid();
+
+        List<Integer> visited = new ArrayList<>();
+        table.forEach(p -> visited.add(p.getPid()));
+
+        assertEquals(4, visited.size());
+        assertEquals(Integer.valueOf(1), visited.get(0));
+        assertEquals(Integer.valueOf(3), visited.get(1));
+        assertEquals(Integer.valueOf(4), visited.get(2));
+        assertEquals(Integer.valueOf(5), visited.get(3));
+    }
+
+    // Allocates and puts the given number of processes, returning their pids
+    private List<Integer> fill(int count) {
+        List<Integer> pids = new ArrayList<>();
+        for (int i = 0 ; i < count ; i++) {
+            int pid = table.allocatePid();
+            table.put(createProcess(pid));
+            pids.add(pid);
+        }
+        return pids;
+    }
+
+    private static PCB createProcess(int pid) {
+        return new PCB(template, pid, IPCStandard.MESSAGE_PASSING);
+    }
+
+}
@@ -0,0 +1,273 @@
+package Control;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ResourceManagerTest {
+
+    private static final int ALL = ResourceManager.NUM_RESOURCES_PER_TYPE;
+    private static final int HALF = ALL / 2;
+
+    private ResourceManager resourceManager;
+
+    @Before
+    public void setUp() {
+        // Starts each test from a new instance
+        ResourceManager.restore(null);
+        resourceManager = ResourceManager.getInstance();
+    }
+
+    @Test
+    public void grantsRequestWhichLeavesStateSafe() {
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+
+        assertTrue(resourceManager.requestOrWait(1, demand(0, HALF)));
+        assertEquals(0, resourceManager.getWaitingCount());
+    }
+
+    @Test
+    public void deniesRequestWhichLeavesStateUnsafe() {
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, HALF)));
+
+        // Neither process could finish if both held half of the resources
+        assertFalse(resourceManager.requestOrWait(2, demand(0, HALF)));
+        assertEquals(1, resourceManager.getWaitingCount());
+    }
+
+    @Test
+    public void deniesRequestBeyondMaximumDemand() {
+        resourceManager.addProcess(1, demand(0, 2));
+
+        assertFalse(resourceManager.requestOrWait(1, demand(0, 3)));
+    }
+
+    @Test
+    public void deniesRequestWhichIsNotAvailable() {
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, ALL)));
+
+        assertFalse(resourceManager.requestOrWait(2, demand(0, 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMaximumDemandBeyondTotalResources() {
+        resourceManager.addProcess(1, demand(0, ALL + 1));
+    }
+
+    @Test
+    public void grantsWaiterOnceReleaseMakesItSafe() {
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, HALF)));
+        assertFalse(resourceManager.requestOrWait(2, demand(0, HALF)));
+
+        resourceManager.releaseResources(1, demand(0, HALF));
+        List<ResourceManager.Waiter> granted = new ArrayList<>();
+        resourceManager.retryWaiting(granted);
+
+        assertEquals(1, granted.size());
+        assertEquals(2, granted.get(0).pid);
+        assertEquals(0, resourceManager.getWaitingCount());
+    }
+
+    @Test
+    public void doesNotRetryWaiterUntilResourcesItIsShortOfAreReleased() {
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(1, ALL));
+        resourceManager.addProcess(3, demand(0, 1));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, ALL)));
+        assertTrue(resourceManager.requestOrWait(2, demand(1, ALL)));
+        assertFalse(resourceManager.requestOrWait(3, demand(0, 1)));
+
+        resourceManager.releaseResources(2, demand(1, ALL));
+        List<ResourceManager.Waiter> granted = new ArrayList<>();
+        resourceManager.retryWaiting(granted);
+        assertTrue(granted.isEmpty());
+
+        resourceManager.releaseResources(1, demand(0, 1));
+        resourceManager.retryWaiting(granted);
+        assertEquals(1, granted.size());
+        assertEquals(3, granted.get(0).pid);
+    }
+
+    @Test
+    public void removingProcessReleasesItsResources() {
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, ALL)));
+        assertFalse(resourceManager.requestOrWait(2, demand(0, ALL)));
+
+        resourceManager.removeProcess(1);
+        List<ResourceManager.Waiter> granted = new ArrayList<>();
+        resourceManager.retryWaiting(granted);
+
+        assertEquals(1, granted.size());
+    }
+
+    @Test
+    public void reusesSlotsOfRemovedProcesses() {
+        // More processes than the initial capacity are added and removed over time
+        for (int pid = 1 ; pid <= 200 ; pid++) {
+            resourceManager.addProcess(pid, demand(0, 1));
+            assertTrue(resourceManager.requestOrWait(pid, demand(0, 1)));
+            if (pid > 8) {
+                resourceManager.removeProcess(pid - 8);
+            }
+        }
+        // Only the last 8 processes still hold a resource each
+        resourceManager.addProcess(201, demand(0, ALL - 8));
+        assertTrue(resourceManager.requestOrWait(201, demand(0, ALL - 8)));
+    }
+
+    @Test
+    public void detectionGrantsUnsafeRequestsAndFindsDeadlock() {
+        resourceManager.setStrategy(DeadlockStrategy.DETECTION);
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, HALF)));
+        assertTrue(resourceManager.requestOrWait(2, demand(0, HALF)));
+        assertFalse(resourceManager.requestOrWait(1, demand(0, HALF)));
+        assertFalse(resourceManager.requestOrWait(2, demand(0, HALF)));
+
+        List<Integer> deadlocked = new ArrayList<>();
+        resourceManager.findDeadlocked(deadlocked, Collections.emptyMap());
+
+        assertEquals(2, deadlocked.size());
+        assertTrue(deadlocked.contains(1));
+        assertTrue(deadlocked.contains(2));
+        assertFalse(resourceManager.isChangedSinceDetection());
+    }
+
+    @Test
+    public void detectionIgnoresWaiterWhichCanFinishOnceOthersRelease() {
+        resourceManager.setStrategy(DeadlockStrategy.DETECTION);
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, ALL)));
+        assertFalse(resourceManager.requestOrWait(2, demand(0, 1)));
+
+        List<Integer> deadlocked = new ArrayList<>();
+        resourceManager.findDeadlocked(deadlocked, Collections.emptyMap());
+
+        assertTrue(deadlocked.isEmpty());
+    }
+
+    @Test
+    public void detectsCycleThroughLock() {
+        resourceManager.setStrategy(DeadlockStrategy.DETECTION);
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, ALL)));
+        assertFalse(resourceManager.requestOrWait(2, demand(0, 1)));
+        // Process 1 waits on a lock held by process 2, which waits on the resources held by process 1
+        Map<Integer, int[]> lockHolders = new HashMap<>();
+        lockHolders.put(1, new int[] {2});
+
+        List<Integer> deadlocked = new ArrayList<>();
+        resourceManager.findDeadlocked(deadlocked, lockHolders);
+
+        assertEquals(2, deadlocked.size());
+        assertTrue(deadlocked.contains(1));
+        assertTrue(deadlocked.contains(2));
+    }
+
+    @Test
+    public void lockWaiterCanFinishOnceHolderDoes() {
+        resourceManager.setStrategy(DeadlockStrategy.DETECTION);
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+        resourceManager.addProcess(3, demand(0, ALL));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, ALL)));
+        assertFalse(resourceManager.requestOrWait(2, demand(0, 1)));
+        // Process 3 isn't waiting on anything, so can release the lock
+        Map<Integer, int[]> lockHolders = new HashMap<>();
+        lockHolders.put(1, new int[] {3});
+
+        List<Integer> deadlocked = new ArrayList<>();
+        resourceManager.findDeadlocked(deadlocked, lockHolders);
+
+        assertTrue(deadlocked.isEmpty());
+    }
+
+    @Test
+    public void lockWaiterHoldingNoResourcesIsNotVictim() {
+        resourceManager.setStrategy(DeadlockStrategy.DETECTION);
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+        resourceManager.addProcess(3, demand(0, ALL));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, ALL)));
+        assertFalse(resourceManager.requestOrWait(2, demand(0, 1)));
+        Map<Integer, int[]> lockHolders = new HashMap<>();
+        lockHolders.put(1, new int[] {2});
+        lockHolders.put(3, new int[] {1});
+
+        List<Integer> deadlocked = new ArrayList<>();
+        resourceManager.findDeadlocked(deadlocked, lockHolders);
+
+        assertEquals(2, deadlocked.size());
+        assertFalse(deadlocked.contains(3));
+    }
+
+    @Test
+    public void preemptingDeadlockVictimLetsOtherWaiterProceed() {
+        resourceManager.setStrategy(DeadlockStrategy.DETECTION);
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, HALF)));
+        assertTrue(resourceManager.requestOrWait(2, demand(0, HALF)));
+        assertFalse(resourceManager.requestOrWait(1, demand(0, HALF)));
+        assertFalse(resourceManager.requestOrWait(2, demand(0, HALF)));
+
+        resourceManager.preemptResources(2);
+        List<ResourceManager.Waiter> granted = new ArrayList<>();
+        resourceManager.retryWaiting(granted);
+
+        assertEquals(1, granted.size());
+        assertEquals(1, granted.get(0).pid);
+    }
+
+    @Test
+    public void rollingBackVictimHoldingResourcesClearsDeadlock() {
+        resourceManager.setStrategy(DeadlockStrategy.DETECTION);
+        resourceManager.addProcess(1, demand(0, ALL));
+        resourceManager.addProcess(2, demand(0, ALL));
+        resourceManager.addProcess(3, demand(0, ALL));
+        assertTrue(resourceManager.requestOrWait(1, demand(0, HALF)));
+        assertTrue(resourceManager.requestOrWait(2, demand(0, HALF)));
+        assertFalse(resourceManager.requestOrWait(1, demand(0, HALF)));
+        assertFalse(resourceManager.requestOrWait(2, demand(0, HALF)));
+        // Process 3 holds nothing, so preempting it would leave the deadlock in place
+        assertFalse(resourceManager.requestOrWait(3, demand(0, 1)));
+        List<Integer> deadlocked = new ArrayList<>();
+        resourceManager.findDeadlocked(deadlocked, Collections.emptyMap());
+        assertTrue(deadlocked.contains(3));
+        assertFalse(resourceManager.hasAllocation(3));
+        assertTrue(resourceManager.hasAllocation(2));
+
+        resourceManager.preemptResources(2);
+        deadlocked.clear();
+        resourceManager.findDeadlocked(deadlocked, Collections.emptyMap());
+
+        assertTrue(deadlocked.isEmpty());
+    }
+
+    // A vector requesting the amount of a single resource type
+    private static int[] demand(int type, int amount) {
+        int[] vector = new int[ResourceManager.NUM_RESOURCE_TYPES];
+        vector[type] = amount;
+        return vector;
+    }
+
+}
@@ -0,0 +1,154 @@
+package Control;
+
+import Processes.Priority;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+
+import static org.junit.Assert.*;
+
+public class WaitQueueTest {
+
+    private WaitQueue queue;
+
+    @Before
+    public void setUp() {
+        queue = new WaitQueue();
+    }
+
+    @Test
+    public void startsEmpty() {
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+        assertNull(queue.getHighestPriority());
+    }
+
+    @Test
+    public void pollsWaitersInOrderAdded() {
+        queue.add(3, false, Priority.LOW);
+        queue.add(1, false, Priority.HIGH);
+        queue.add(2, false, Priority.MEDIUM);
+
+        assertEquals(3, queue.poll());
+        assertEquals(1, queue.poll());
+        assertEquals(2, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void removesWaiterFromAnyPosition() {
+        for (int pid = 1 ; pid <= 5 ; pid++) {
+            queue.add(pid, false, Priority.LOW);
+        }
+
+        assertTrue(queue.remove(1));
+        assertTrue(queue.remove(3));
+        assertTrue(queue.remove(5));
+
+        assertEquals(2, queue.size());
+        assertEquals(2, queue.poll());
+        assertEquals(4, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void removingProcessWhichIsNotWaitingReturnsFalse() {
+        queue.add(1, false, Priority.LOW);
+
+        assertFalse(queue.remove(2));
+        queue.poll();
+        assertFalse(queue.remove(1));
+    }
+
+    @Test
+    public void queueCanBeReusedOnceEmptied() {
+        queue.add(1, false, Priority.LOW);
+        queue.remove(1);
+        queue.add(2, false, Priority.LOW);
+        queue.add(3, false, Priority.LOW);
+
+        assertEquals(2, queue.poll());
+        assertEquals(3, queue.poll());
+    }
+
+    @Test
+    public void tracksHighestPriorityAsWaitersLeave() {
+        queue.add(1, false, Priority.LOW);
+        queue.add(2, false, Priority.HIGH);
+        queue.add(3, false, Priority.MEDIUM);
+        assertEquals(Priority.HIGH, queue.getHighestPriority());
+
+        queue.remove(2);
+        assertEquals(Priority.MEDIUM, queue.getHighestPriority());
+
+        queue.poll();
+        assertEquals(Priority.MEDIUM, queue.getHighestPriority());
+
+        queue.poll();
+        assertNull(queue.getHighestPriority());
+    }
+
+    @Test
+    public void reportsWhetherOldestWaiterIsShared() {
+        queue.add(1, true, Priority.LOW);
+        queue.add(2, false, Priority.LOW);
+
+        assertTrue(queue.isSharedAtHead());
+        queue.poll();
+        assertFalse(queue.isSharedAtHead());
+    }
+
+    @Test
+    public void keepsOrderAndPrioritiesWhenSerialized() throws IOException, ClassNotFoundException {
+        // Long enough that serializing the linked nodes themselves would overflow the stack
+        for (int pid = 1 ; pid <= 100000 ; pid++) {
+            queue.add(pid, pid % 2 == 0, pid == 50000 ? Priority.HIGH : Priority.LOW);
+        }
+
+        WaitQueue copy = roundTrip(queue);
+
+        assertEquals(100000, copy.size());
+        assertEquals(Priority.HIGH, copy.getHighestPriority());
+        assertFalse(copy.isSharedAtHead());
+        for (int pid = 1 ; pid <= 100000 ; pid++) {
+            assertEquals(pid, copy.poll());
+        }
+        assertTrue(copy.isEmpty());
+    }
+
+    @Test
+    public void semaphorePassesPermitToOldestWaiter() {
+        Semaphore semaphore = new Semaphore(1);
+        assertTrue(semaphore.acquire(1, false, Priority.LOW));
+        assertFalse(semaphore.acquire(2, false, Priority.LOW));
+        assertFalse(semaphore.acquire(3, false, Priority.HIGH));
+
+        int[] admitted = new int[1];
+        semaphore.release(1, pid -> admitted[0] = pid);
+
+        assertEquals(2, admitted[0]);
+        assertEquals(1, semaphore.getWaitingCount());
+        assertEquals(Priority.HIGH, semaphore.getHighestWaitingPriority());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void semaphoreRejectsReleaseByProcessNotHoldingIt() {
+        Semaphore semaphore = new Semaphore(1);
+        assertTrue(semaphore.acquire(1, false, Priority.LOW));
+
+        semaphore.release(2, pid -> fail("No process should be admitted"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Serializable> T roundTrip(T object) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) in.readObject();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package Memory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ARCPolicyTest {
+
+    private ARCPolicy policy;
+    private Page[] pages;
+
+    // Frame 0 holds a page accessed again since it was faulted in, frames 1 and 2 pages only accessed once
+    @Before
+    public void setUp() {
+        policy = new ARCPolicy(3);
+        pages = new Page[3];
+        for (int frame = 0 ; frame < 3 ; frame++) {
+            pages[frame] = new Page(frame, 1);
+            policy.admit(frame, pages[frame]);
+        }
+        policy.hit(0);
+    }
+
+    @Test
+    public void scanOfNewPagesNeverEvictsFrequentlyUsedPage() {
+        for (int i = 0 ; i < 20 ; i++) {
+            Page incoming = new Page(3 + i, 1);
+            int frame = policy.selectVictim(incoming, Page.NO_FRAME);
+            assertNotEquals(0, frame);
+            policy.admit(frame, incoming);
+        }
+    }
+
+    @Test
+    public void faultOnRecentlyEvictedPageEvictsFromFrequentInstead() {
+        assertEquals(1, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+        policy.admit(1, new Page(3, 1));
+        assertEquals(2, policy.selectVictim(new Page(4, 1), Page.NO_FRAME));
+
+        // Page 2 was evicted too early, so the recent list grows at the expense of the frequent one
+        assertEquals(0, policy.selectVictim(pages[2], Page.NO_FRAME));
+    }
+
+    @Test
+    public void evictsFromOtherListWhenPinnedFrameIsOnlyOneInChosenList() {
+        assertEquals(1, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+        policy.admit(1, new Page(3, 1));
+        policy.hit(1);
+
+        // Frame 2 is the only recently used page left, and is pinned
+        assertEquals(0, policy.selectVictim(new Page(4, 1), 2));
+    }
+
+    @Test
+    public void forgottenPageIsNoLongerGhost() {
+        assertEquals(1, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+        policy.admit(1, new Page(3, 1));
+        assertEquals(2, policy.selectVictim(new Page(4, 1), Page.NO_FRAME));
+        policy.forget(pages[2]);
+
+        // Without the ghost, the fault is treated as a new page and the target isn't adapted
+        assertEquals(1, policy.selectVictim(pages[2], Page.NO_FRAME));
+    }
+
+}
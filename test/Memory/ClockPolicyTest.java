@@ -0,0 +1,35 @@
+package Memory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ClockPolicyTest {
+
+    @Test
+    public void givesReferencedPagesSecondChance() {
+        ClockPolicy policy = new ClockPolicy(3);
+        for (int frame = 0 ; frame < 3 ; frame++) {
+            policy.admit(frame, new Page(frame, 1));
+        }
+
+        // Every page was referenced when admitted, so the hand clears them all and comes back around to the first
+        assertEquals(0, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+        policy.admit(0, new Page(3, 1));
+        policy.hit(1);
+
+        // Frame 1 was referenced since the hand passed it, frame 2 wasn't
+        assertEquals(2, policy.selectVictim(new Page(4, 1), Page.NO_FRAME));
+    }
+
+    @Test
+    public void handPassesOverPinnedFrame() {
+        ClockPolicy policy = new ClockPolicy(3);
+        for (int frame = 0 ; frame < 3 ; frame++) {
+            policy.admit(frame, new Page(frame, 1));
+        }
+
+        assertEquals(1, policy.selectVictim(new Page(3, 1), 0));
+    }
+
+}
@@ -0,0 +1,35 @@
+package Memory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FIFOPolicyTest {
+
+    @Test
+    public void evictsOldestPageRegardlessOfHits() {
+        FIFOPolicy policy = new FIFOPolicy(3);
+        for (int frame = 0 ; frame < 3 ; frame++) {
+            policy.admit(frame, new Page(frame, 1));
+        }
+        policy.hit(0);
+
+        assertEquals(0, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+        policy.admit(0, new Page(3, 1));
+        assertEquals(1, policy.selectVictim(new Page(4, 1), Page.NO_FRAME));
+        assertEquals(2, policy.selectVictim(new Page(4, 1), Page.NO_FRAME));
+        assertEquals(0, policy.selectVictim(new Page(4, 1), Page.NO_FRAME));
+    }
+
+    @Test
+    public void evictsNextOldestWhenOldestIsPinned() {
+        FIFOPolicy policy = new FIFOPolicy(3);
+        for (int frame = 0 ; frame < 3 ; frame++) {
+            policy.admit(frame, new Page(frame, 1));
+        }
+
+        assertEquals(1, policy.selectVictim(new Page(3, 1), 0));
+        assertEquals(0, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+    }
+
+}
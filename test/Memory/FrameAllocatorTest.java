@@ -0,0 +1,62 @@
+package Memory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameAllocatorTest {
+
+    private FrameAllocator frames;
+
+    @Before
+    public void setUp() {
+        frames = new FrameAllocator(4);
+    }
+
+    @Test
+    public void handsOutFramesInAscendingOrder() {
+        for (int frame = 0 ; frame < 4 ; frame++) {
+            assertEquals(frame, frames.allocate(new Page(frame, 1)));
+        }
+        assertFalse(frames.hasFreeFrame());
+        assertEquals(0, frames.getFreeCount());
+    }
+
+    @Test
+    public void freeingFrameReturnsItsPage() {
+        Page page = new Page(0, 1);
+        int frame = frames.allocate(page);
+
+        assertSame(page, frames.free(frame));
+        assertEquals(4, frames.getFreeCount());
+    }
+
+    @Test
+    public void reusesMostRecentlyFreedFrame() {
+        for (int frame = 0 ; frame < 4 ; frame++) {
+            frames.allocate(new Page(frame, 1));
+        }
+        frames.free(2);
+        frames.free(1);
+
+        assertEquals(1, frames.allocate(new Page(4, 1)));
+        assertEquals(2, frames.allocate(new Page(5, 1)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cannotAllocateOnceEveryFrameIsInUse() {
+        for (int frame = 0 ; frame < 5 ; frame++) {
+            frames.allocate(new Page(frame, 1));
+        }
+    }
+
+    @Test
+    public void startAddressesDoNotOverflowForLargeMemories() {
+        long frame = Integer.MAX_VALUE / Page.getSizeBytes() + 1;
+
+        assertEquals(frame * Page.getSizeBytes(), FrameAllocator.getStartAddress((int) frame));
+        assertTrue(FrameAllocator.getStartAddress((int) frame) > Integer.MAX_VALUE);
+    }
+
+}
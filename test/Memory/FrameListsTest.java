@@ -0,0 +1,122 @@
+package Memory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameListsTest {
+
+    private static final int FIRST = 0;
+    private static final int SECOND = 1;
+
+    private FrameLists lists;
+
+    @Before
+    public void setUp() {
+        lists = new FrameLists(8, 2);
+    }
+
+    @Test
+    public void startsWithEveryFrameOutsideEveryList() {
+        assertTrue(lists.isEmpty(FIRST));
+        assertTrue(lists.isEmpty(SECOND));
+        for (int frame = 0 ; frame < 8 ; frame++) {
+            assertEquals(FrameLists.NONE, lists.getList(frame));
+        }
+        assertEquals(FrameLists.NONE, lists.removeFirst(FIRST));
+    }
+
+    @Test
+    public void removesFramesInOrderAdded() {
+        lists.addLast(FIRST, 5);
+        lists.addLast(FIRST, 2);
+        lists.addLast(FIRST, 7);
+
+        assertEquals(3, lists.size(FIRST));
+        assertEquals(5, lists.removeFirst(FIRST));
+        assertEquals(2, lists.removeFirst(FIRST));
+        assertEquals(7, lists.removeFirst(FIRST));
+        assertTrue(lists.isEmpty(FIRST));
+    }
+
+    @Test
+    public void removesFrameFromAnyPosition() {
+        for (int frame = 0 ; frame < 5 ; frame++) {
+            lists.addLast(FIRST, frame);
+        }
+
+        lists.remove(0);
+        lists.remove(2);
+        lists.remove(4);
+
+        assertEquals(FrameLists.NONE, lists.getList(2));
+        assertEquals(2, lists.size(FIRST));
+        assertEquals(1, lists.removeFirst(FIRST));
+        assertEquals(3, lists.removeFirst(FIRST));
+    }
+
+    @Test
+    public void removingFrameOutsideEveryListDoesNothing() {
+        lists.addLast(FIRST, 1);
+
+        lists.remove(3);
+
+        assertEquals(1, lists.size(FIRST));
+    }
+
+    @Test
+    public void movesFrameToEndOfAnotherList() {
+        lists.addLast(FIRST, 1);
+        lists.addLast(FIRST, 2);
+        lists.addLast(SECOND, 3);
+
+        lists.moveToLast(SECOND, 1);
+
+        assertEquals(SECOND, lists.getList(1));
+        assertEquals(1, lists.size(FIRST));
+        assertEquals(2, lists.size(SECOND));
+        assertEquals(3, lists.removeFirst(SECOND));
+        assertEquals(1, lists.removeFirst(SECOND));
+    }
+
+    @Test
+    public void movesFrameToEndOfItsOwnList() {
+        lists.addLast(FIRST, 1);
+        lists.addLast(FIRST, 2);
+
+        lists.moveToLast(FIRST, 1);
+
+        assertEquals(2, lists.removeFirst(FIRST));
+        assertEquals(1, lists.removeFirst(FIRST));
+    }
+
+    @Test
+    public void skipsExcludedFrameAtHead() {
+        lists.addLast(FIRST, 4);
+        lists.addLast(FIRST, 6);
+
+        assertEquals(6, lists.removeFirstExcept(FIRST, 4));
+        assertEquals(FIRST, lists.getList(4));
+        assertEquals(1, lists.size(FIRST));
+    }
+
+    @Test
+    public void removesHeadWhenExcludedFrameIsElsewhere() {
+        lists.addLast(FIRST, 4);
+        lists.addLast(FIRST, 6);
+
+        assertEquals(4, lists.removeFirstExcept(FIRST, 6));
+        assertEquals(6, lists.removeFirstExcept(FIRST, FrameLists.NONE));
+    }
+
+    @Test
+    public void returnsNoneWhenOnlyExcludedFrameIsLeft() {
+        lists.addLast(FIRST, 4);
+
+        assertEquals(FrameLists.NONE, lists.removeFirstExcept(FIRST, 4));
+        assertEquals(FrameLists.NONE, lists.removeFirstExcept(SECOND, FrameLists.NONE));
+        assertEquals(1, lists.size(FIRST));
+    }
+
+}
@@ -0,0 +1,66 @@
+package Memory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LFUPolicyTest {
+
+    @Test
+    public void evictsLeastFrequentlyUsedPage() {
+        LFUPolicy policy = new LFUPolicy(3);
+        for (int frame = 0 ; frame < 3 ; frame++) {
+            policy.admit(frame, new Page(frame, 1));
+        }
+        policy.hit(0);
+        policy.hit(0);
+        policy.hit(2);
+
+        assertEquals(1, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+        assertEquals(2, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+        assertEquals(0, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+    }
+
+    @Test
+    public void newlyAdmittedPageIsLeastFrequentlyUsed() {
+        LFUPolicy policy = new LFUPolicy(3);
+        for (int frame = 0 ; frame < 3 ; frame++) {
+            policy.admit(frame, new Page(frame, 1));
+            policy.hit(frame);
+        }
+        assertEquals(0, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+
+        policy.admit(0, new Page(3, 1));
+
+        assertEquals(0, policy.selectVictim(new Page(4, 1), Page.NO_FRAME));
+    }
+
+    @Test
+    public void looksInHigherFrequencyWhenOnlyPinnedFrameIsLeastUsed() {
+        LFUPolicy policy = new LFUPolicy(3);
+        for (int frame = 0 ; frame < 3 ; frame++) {
+            policy.admit(frame, new Page(frame, 1));
+        }
+        policy.hit(1);
+        policy.hit(2);
+        policy.hit(2);
+
+        assertEquals(1, policy.selectVictim(new Page(3, 1), 0));
+    }
+
+    @Test
+    public void saturatedFrequenciesAreOrderedByRecency() {
+        LFUPolicy policy = new LFUPolicy(2);
+        policy.admit(0, new Page(0, 1));
+        policy.admit(1, new Page(1, 1));
+        for (int i = 0 ; i < 1000 ; i++) {
+            policy.hit(0);
+        }
+        for (int i = 0 ; i < 300 ; i++) {
+            policy.hit(1);
+        }
+
+        assertEquals(0, policy.selectVictim(new Page(2, 1), Page.NO_FRAME));
+    }
+
+}
@@ -0,0 +1,35 @@
+package Memory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LRUPolicyTest {
+
+    @Test
+    public void evictsLeastRecentlyUsedPage() {
+        LRUPolicy policy = new LRUPolicy(3);
+        for (int frame = 0 ; frame < 3 ; frame++) {
+            policy.admit(frame, new Page(frame, 1));
+        }
+        policy.hit(0);
+        policy.hit(2);
+        policy.hit(1);
+
+        assertEquals(0, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+        assertEquals(2, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+        assertEquals(1, policy.selectVictim(new Page(3, 1), Page.NO_FRAME));
+    }
+
+    @Test
+    public void evictsNextLeastRecentlyUsedWhenPinned() {
+        LRUPolicy policy = new LRUPolicy(3);
+        for (int frame = 0 ; frame < 3 ; frame++) {
+            policy.admit(frame, new Page(frame, 1));
+        }
+        policy.hit(0);
+
+        assertEquals(2, policy.selectVictim(new Page(3, 1), 1));
+    }
+
+}
@@ -0,0 +1,132 @@
+package Memory;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MainMemoryTest {
+
+    private static final int PAGE_SIZE_MB = 2;
+
+    private static MainMemory memory;
+
+    // Only two frames, so every page beyond the second faults and evicts a resident page
+    @BeforeClass
+    public static void setUpClass() {
+        MainMemory.configure(2 * PAGE_SIZE_MB, PAGE_SIZE_MB, true, PageReplacement.FIFO);
+        memory = MainMemory.getInstance();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cannotBeConfiguredOnceCreated() {
+        MainMemory.configure(2 * PAGE_SIZE_MB, PAGE_SIZE_MB, true, PageReplacement.FIFO);
+    }
+
+    @Test
+    public void wordAcrossPageBreakKeepsBothPagesResident() {
+        List<Page> pages = memory.requestMemory(1, 4 * PAGE_SIZE_MB);
+        memory.read(1, pages.get(0), 0);
+        memory.read(1, pages.get(1), 0);
+
+        // The first page is the oldest, so FIFO would choose it as the victim if it wasn't pinned
+        Word word = memory.readAcrossPageBreak(1, pages.get(0), Page.getSizeBytes() - 2, pages.get(2));
+
+        assertNotNull(word);
+        assertTrue(pages.get(0).isInMemory());
+        assertTrue(pages.get(2).isInMemory());
+        assertFalse(pages.get(1).isInMemory());
+        memory.releaseMemory(1, pages);
+    }
+
+    @Test
+    public void writeAcrossPageBreakKeepsBothPagesResident() {
+        List<Page> pages = memory.requestMemory(8, 3 * PAGE_SIZE_MB);
+        memory.read(8, pages.get(1), 0);
+        memory.read(8, pages.get(0), 0);
+        Page[] pageTable = pages.toArray(new Page[0]);
+
+        // The first page is the oldest, so FIFO would choose it as the victim if it wasn't pinned
+        memory.writeAcrossPageBreak(8, pageTable, 1);
+
+        assertTrue(pageTable[1].isInMemory());
+        assertTrue(pageTable[2].isInMemory());
+        assertFalse(pageTable[0].isInMemory());
+        memory.releaseMemory(8, pages);
+    }
+
+    @Test
+    public void countsFaultsAndResidentPagesOfProcess() {
+        List<Page> pages = memory.requestMemory(2, 3 * PAGE_SIZE_MB);
+        assertEquals(0, memory.getResidentPages(2));
+
+        memory.read(2, pages.get(0), 0);
+        memory.read(2, pages.get(0), 0);
+        memory.read(2, pages.get(1), 0);
+        memory.read(2, pages.get(2), 0);
+
+        assertEquals(3, memory.getPageFaults(2));
+        assertEquals(2, memory.getResidentPages(2));
+        assertEquals(2, memory.getPeakResidentPages(2));
+
+        // Kept for the process summary once its memory is released
+        memory.releaseMemory(2, pages);
+        assertEquals(0, memory.getResidentPages(2));
+        assertEquals(3, memory.getPageFaults(2));
+        assertEquals(2, memory.getPeakResidentPages(2));
+    }
+
+    @Test
+    public void evictionCountsAgainstOwnerOfVictim() {
+        List<Page> victimPages = memory.requestMemory(3, PAGE_SIZE_MB);
+        memory.read(3, victimPages.get(0), 0);
+        List<Page> pages = memory.requestMemory(4, 2 * PAGE_SIZE_MB);
+        memory.read(4, pages.get(0), 0);
+        memory.read(4, pages.get(1), 0);
+
+        assertEquals(0, memory.getResidentPages(3));
+        assertEquals(1, memory.getPeakResidentPages(3));
+        assertEquals(2, memory.getResidentPages(4));
+        memory.releaseMemory(3, victimPages);
+        memory.releaseMemory(4, pages);
+    }
+
+    @Test
+    public void sharedPageIsResidentForEachProcessUntilWritten() {
+        List<Page> pages = memory.requestMemory(5, PAGE_SIZE_MB);
+        memory.read(5, pages.get(0), 0);
+
+        Page[] childPages = memory.shareMemory(6, pages.toArray(new Page[0]));
+        assertEquals(1, memory.getResidentPages(5));
+        assertEquals(1, memory.getResidentPages(6));
+
+        childPages[0] = memory.write(6, childPages[0]);
+        assertNotSame(pages.get(0), childPages[0]);
+        assertEquals(1, memory.getResidentPages(5));
+        assertEquals(1, memory.getResidentPages(6));
+        // Copying the page isn't a fault, since the shared page was already resident
+        assertEquals(0, memory.getPageFaults(6));
+
+        memory.releaseMemory(5, pages);
+        memory.releaseMemory(6, Arrays.asList(childPages));
+        assertEquals(0, memory.getResidentPages(5));
+        assertEquals(0, memory.getResidentPages(6));
+    }
+
+    @Test
+    public void countsAreResetWhenPidIsGivenMemoryAgain() {
+        List<Page> pages = memory.requestMemory(7, PAGE_SIZE_MB);
+        memory.read(7, pages.get(0), 0);
+        memory.releaseMemory(7, pages);
+
+        pages = memory.requestMemory(7, PAGE_SIZE_MB);
+
+        assertEquals(0, memory.getPageFaults(7));
+        assertEquals(0, memory.getPeakResidentPages(7));
+        memory.releaseMemory(7, pages);
+    }
+
+}
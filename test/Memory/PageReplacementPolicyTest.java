@@ -0,0 +1,114 @@
+package Memory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+import static org.junit.Assert.*;
+
+// Properties every replacement policy must have, whichever victims it prefers
+@RunWith(Parameterized.class)
+public class PageReplacementPolicyTest {
+
+    private static final int NUM_FRAMES = 8;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<PageReplacement> policies() {
+        return Arrays.asList(PageReplacement.values());
+    }
+
+    private final PageReplacement replacement;
+    private PageReplacementPolicy policy;
+    private Page[] pages;
+
+    public PageReplacementPolicyTest(PageReplacement replacement) {
+        this.replacement = replacement;
+    }
+
+    @Before
+    public void setUp() {
+        policy = replacement.create(NUM_FRAMES);
+        pages = new Page[NUM_FRAMES];
+        for (int frame = 0 ; frame < NUM_FRAMES ; frame++) {
+            pages[frame] = new Page(frame * Page.getSizeBytes(), 1);
+            policy.admit(frame, pages[frame]);
+        }
+        // Gives the policies which track accesses some history to go on
+        for (int frame = 0 ; frame < NUM_FRAMES ; frame += 3) {
+            policy.hit(frame);
+        }
+    }
+
+    @Test
+    public void evictsEveryResidentFrameExactlyOnce() {
+        BitSet evicted = new BitSet(NUM_FRAMES);
+        for (int i = 0 ; i < NUM_FRAMES ; i++) {
+            int frame = policy.selectVictim(newPage(i), Page.NO_FRAME);
+            assertTrue(frame >= 0 && frame < NUM_FRAMES);
+            assertFalse("Frame " + frame + " evicted twice", evicted.get(frame));
+            evicted.set(frame);
+        }
+    }
+
+    @Test
+    public void neverEvictsPinnedFrame() {
+        for (int pinned = 0 ; pinned < NUM_FRAMES ; pinned++) {
+            setUp();
+            BitSet evicted = new BitSet(NUM_FRAMES);
+            for (int i = 0 ; i < NUM_FRAMES - 1 ; i++) {
+                int frame = policy.selectVictim(newPage(i), pinned);
+                assertNotEquals(pinned, frame);
+                assertFalse(evicted.get(frame));
+                evicted.set(frame);
+            }
+        }
+    }
+
+    @Test
+    public void pinnedFrameStaysTracked() {
+        int victim = policy.selectVictim(newPage(0), Page.NO_FRAME);
+        setUp();
+
+        int other = policy.selectVictim(newPage(0), victim);
+        policy.admit(other, newPage(1));
+
+        // Once unpinned, the frame can still be chosen
+        BitSet evicted = new BitSet(NUM_FRAMES);
+        for (int i = 0 ; i < NUM_FRAMES ; i++) {
+            evicted.set(policy.selectVictim(newPage(i + 2), Page.NO_FRAME));
+        }
+        assertTrue(evicted.get(victim));
+    }
+
+    @Test
+    public void neverEvictsFreedFrame() {
+        policy.free(3);
+
+        for (int i = 0 ; i < NUM_FRAMES - 1 ; i++) {
+            assertNotEquals(3, policy.selectVictim(newPage(i), Page.NO_FRAME));
+        }
+    }
+
+    @Test
+    public void evictsReadmittedFrame() {
+        int frame = policy.selectVictim(newPage(0), Page.NO_FRAME);
+        policy.admit(frame, newPage(0));
+
+        BitSet evicted = new BitSet(NUM_FRAMES);
+        for (int i = 0 ; i < NUM_FRAMES ; i++) {
+            evicted.set(policy.selectVictim(newPage(i + 1), Page.NO_FRAME));
+        }
+        assertEquals(NUM_FRAMES, evicted.cardinality());
+    }
+
+    // A page beyond those admitted in setUp()
+    private static Page newPage(int index) {
+        return new Page((NUM_FRAMES + index) * Page.getSizeBytes(), 1);
+    }
+
+}
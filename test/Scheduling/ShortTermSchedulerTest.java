@@ -0,0 +1,172 @@
+package Scheduling;
+
+import Communication.IPCStandard;
+import Control.Configuration;
+import Control.OperatingSystem;
+import Processes.PCB;
+import Processes.Priority;
+import Processes.Template;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import static org.junit.Assert.*;
+
+public class ShortTermSchedulerTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static Template shortJob;
+    private static Template longJob;
+    private static int nextPid = 1;
+
+    // Each process starts with a single CALCULATE burst of a fixed length
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        File templates = folder.newFolder("templates");
+        writeTemplate(templates, "short.txt", "CALCULATE 5 6");
+        writeTemplate(templates, "long.txt", "CALCULATE 50 51");
+        Template.setTemplatesDirectory(templates.getPath());
+        OperatingSystem.configure(new Configuration());
+        OperatingSystem.getInstance();
+        for (Template template : Template.getTemplates()) {
+            if (template.name().startsWith("short")) {
+                shortJob = template;
+            } else {
+                longJob = template;
+            }
+        }
+    }
+
+    @Test
+    public void roundRobinStealsMostRecentlyQueued() {
+        ShortTermScheduler scheduler = new RRScheduler();
+        PCB first = createProcess(shortJob);
+        PCB second = createProcess(shortJob);
+        PCB third = createProcess(shortJob);
+        scheduler.add(first);
+        scheduler.add(second);
+        scheduler.add(third);
+
+        assertSame(third, scheduler.steal());
+        assertSame(first, scheduler.remove());
+        assertSame(second, scheduler.remove());
+    }
+
+    @Test
+    public void multiLevelQueueStealsMostRecentlyQueuedOfLowestPriority() {
+        ShortTermScheduler scheduler = new MLQScheduler();
+        PCB firstLow = createProcess(shortJob, Priority.LOW);
+        PCB high = createProcess(shortJob, Priority.HIGH);
+        PCB secondLow = createProcess(shortJob, Priority.LOW);
+        PCB medium = createProcess(shortJob, Priority.MEDIUM);
+        scheduler.add(firstLow);
+        scheduler.add(high);
+        scheduler.add(secondLow);
+        scheduler.add(medium);
+
+        assertSame(secondLow, scheduler.steal());
+        assertSame(firstLow, scheduler.steal());
+        assertSame(medium, scheduler.steal());
+        assertSame(high, scheduler.remove());
+    }
+
+    @Test
+    public void multiLevelQueueMovesQueuedProcessWhenPriorityChanges() {
+        ShortTermScheduler scheduler = new MLQScheduler();
+        PCB high = createProcess(shortJob, Priority.HIGH);
+        PCB low = createProcess(shortJob, Priority.LOW);
+        PCB running = createProcess(shortJob, Priority.LOW);
+        scheduler.add(high);
+        scheduler.add(low);
+
+        low.setEffectivePriority(Priority.HIGH);
+        scheduler.priorityChanged(low);
+        // A process which isn't queued is left alone
+        running.setEffectivePriority(Priority.HIGH);
+        scheduler.priorityChanged(running);
+
+        assertEquals(2, scheduler.getReadyCount());
+        assertSame(high, scheduler.remove());
+        assertSame(low, scheduler.remove());
+        assertNull(scheduler.remove());
+    }
+
+    @Test
+    public void multiLevelQueueMovesProcessGivenPidOfQueuedProcess() {
+        ShortTermScheduler scheduler = new MLQScheduler();
+        PCB exited = createProcess(shortJob, Priority.HIGH);
+        scheduler.add(exited);
+        // An exited process is left in the queue while its pid is given to a new process
+        PCB recycled = new PCB(shortJob, exited.getPid(), IPCStandard.MESSAGE_PASSING);
+        recycled.setEffectivePriority(Priority.LOW);
+        scheduler.add(recycled);
+        PCB medium = createProcess(shortJob, Priority.MEDIUM);
+        scheduler.add(medium);
+        assertSame(exited, scheduler.remove());
+
+        recycled.setEffectivePriority(Priority.HIGH);
+        scheduler.priorityChanged(recycled);
+
+        assertSame(recycled, scheduler.remove());
+        assertSame(medium, scheduler.remove());
+    }
+
+    @Test
+    public void shortestJobFirstStealsLongestJob() {
+        ShortTermScheduler scheduler = new SJFScheduler();
+        PCB shorter = createProcess(shortJob);
+        PCB longer = createProcess(longJob);
+        scheduler.add(shorter);
+        scheduler.add(longer);
+
+        assertSame(longer, scheduler.steal());
+        assertSame(shorter, scheduler.remove());
+        assertEquals(0, scheduler.getReadyCount());
+    }
+
+    @Test
+    public void shortestJobFirstKeepsProcessGivenPidOfQueuedProcess() {
+        ShortTermScheduler scheduler = new SJFScheduler();
+        PCB exited = createProcess(shortJob);
+        scheduler.add(exited);
+        // An exited process is left in the queue while its pid is given to a new process with an equal burst
+        PCB recycled = new PCB(shortJob, exited.getPid(), IPCStandard.MESSAGE_PASSING);
+        scheduler.add(recycled);
+
+        assertEquals(2, scheduler.getReadyCount());
+        assertSame(exited, scheduler.remove());
+        assertSame(recycled, scheduler.remove());
+    }
+
+    @Test
+    public void stealReturnsNullWhenNothingIsReady() {
+        assertNull(new RRScheduler().steal());
+        assertNull(new MLQScheduler().steal());
+        assertNull(new SJFScheduler().steal());
+    }
+
+    private static PCB createProcess(Template template, Priority priority) {
+        PCB p = createProcess(template);
+        p.setEffectivePriority(priority);
+        return p;
+    }
+
+    private static PCB createProcess(Template template) {
+        return new PCB(template, nextPid++, IPCStandard.MESSAGE_PASSING);
+    }
+
+    private static void writeTemplate(File directory, String name, String operations) throws IOException {
+        try (Writer out = new FileWriter(new File(directory, name))) {
+            out.write("MEMORY_REQUIRED_MB: 2\n" + operations + "\n");
+        }
+    }
+
+}